@@ -38,6 +38,16 @@ public interface AccountDao {
      */
     List<Account> findAll();
 
+    /**
+     * Returns a page of accounts ordered by id, that goes right after an account with id {@code afterId}. It uses
+     * keyset pagination, so each page is found by primary key index seek no matter how deep it is.
+     *
+     * @param afterId a cursor returned with previous page, or {@code null} to get the first page
+     * @param limit   maximum number of accounts on the page
+     * @return page of accounts
+     */
+    Page<Account> findPage(Long afterId, int limit);
+
     /**
      * Receives stored {@link Account} instance and updates it in the database
      *
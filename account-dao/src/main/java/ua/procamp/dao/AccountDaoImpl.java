@@ -1,45 +1,108 @@
 package ua.procamp.dao;
 
+import org.hibernate.Session;
+import ua.procamp.exception.AccountDaoException;
 import ua.procamp.model.Account;
+import ua.procamp.util.EntityManagerUtil;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class AccountDaoImpl implements AccountDao {
     private EntityManagerFactory emf;
+    private EntityManagerUtil emUtil;
 
     public AccountDaoImpl(EntityManagerFactory emf) {
         this.emf = emf;
+        this.emUtil = new EntityManagerUtil(emf);
     }
 
     @Override
     public void save(Account account) {
-        throw new UnsupportedOperationException("I don't wanna work without implementation!"); // todo
+        performWithinTx(entityManager -> entityManager.persist(account),
+                String.format("Error saving account: %s", account));
     }
 
     @Override
     public Account findById(Long id) {
-        throw new UnsupportedOperationException("I don't wanna work without implementation!"); // todo
+        return performReturningWithinTx(entityManager -> entityManager.find(Account.class, id),
+                String.format("Error finding account by id = %d", id));
     }
 
     @Override
     public Account findByEmail(String email) {
-        throw new UnsupportedOperationException("I don't wanna work without implementation!"); // todo
+        // email is a natural id, so it's resolved from the natural-id cache and the entity is loaded by its id
+        return performReturningWithinTx(entityManager ->
+                        entityManager.unwrap(Session.class).bySimpleNaturalId(Account.class).load(email),
+                String.format("Error finding account by email = %s", email));
     }
 
     @Override
     public List<Account> findAll() {
-        throw new UnsupportedOperationException("I don't wanna work without implementation!"); // todo
+        return performReturningWithinTx(entityManager ->
+                        entityManager.createQuery("select a from Account a", Account.class).getResultList(),
+                "Error finding all accounts");
+    }
+
+    @Override
+    public Page<Account> findPage(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit should be positive");
+        }
+        List<Account> accounts = performReturningWithinTx(entityManager -> createPageQuery(entityManager, afterId)
+                        // one extra row is fetched to find out whether there is a next page
+                        .setMaxResults(limit + 1)
+                        .getResultList(),
+                String.format("Error finding accounts page after id = %d", afterId));
+        return toPage(accounts, limit);
+    }
+
+    private TypedQuery<Account> createPageQuery(EntityManager entityManager, Long afterId) {
+        if (afterId == null) {
+            return entityManager.createQuery("select a from Account a order by a.id", Account.class);
+        }
+        return entityManager.createQuery("select a from Account a where a.id > :afterId order by a.id", Account.class)
+                .setParameter("afterId", afterId);
+    }
+
+    private Page<Account> toPage(List<Account> accounts, int limit) {
+        if (accounts.size() <= limit) {
+            return new Page<>(accounts, null);
+        }
+        List<Account> content = new ArrayList<>(accounts.subList(0, limit));
+        return new Page<>(content, content.get(limit - 1).getId());
     }
 
     @Override
     public void update(Account account) {
-        throw new UnsupportedOperationException("I don't wanna work without implementation!"); // todo
+        performWithinTx(entityManager -> entityManager.merge(account),
+                String.format("Error updating account: %s", account));
     }
 
     @Override
     public void remove(Account account) {
-        throw new UnsupportedOperationException("I don't wanna work without implementation!"); // todo
+        performWithinTx(entityManager -> entityManager.remove(entityManager.merge(account)),
+                String.format("Error removing account: %s", account));
+    }
+
+    private void performWithinTx(Consumer<EntityManager> entityManagerConsumer, String errorMessage) {
+        try {
+            emUtil.performWithinTx(entityManagerConsumer);
+        } catch (Exception e) {
+            throw new AccountDaoException(errorMessage, e);
+        }
     }
-}
 
+    private <T> T performReturningWithinTx(Function<EntityManager, T> entityManagerFunction, String errorMessage) {
+        try {
+            return emUtil.performReturningWithinTx(entityManagerFunction);
+        } catch (Exception e) {
+            throw new AccountDaoException(errorMessage, e);
+        }
+    }
+}
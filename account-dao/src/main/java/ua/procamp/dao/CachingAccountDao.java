@@ -0,0 +1,147 @@
+package ua.procamp.dao;
+
+import ua.procamp.model.Account;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CachingAccountDao} is an opt-in read-through cache decorator for any {@link AccountDao}. Accounts found
+ * by {@link AccountDao#findById(Long)} and {@link AccountDao#findByEmail(String)} are kept in a bounded cache for
+ * a given time to live, so repeated lookups don't hit the database. Cached accounts are invalidated when they are
+ * updated or removed through this DAO. A lookup that misses doesn't cache its result if any account was invalidated
+ * while it was loaded from the database, so a concurrent update can't be overwritten by the value it replaced.
+ * <p>
+ * Cached accounts are shared between callers, so they should be treated as read-only. Changes made bypassing this DAO
+ * become visible after cache entries expire.
+ */
+public class CachingAccountDao implements AccountDao {
+    private final AccountDao accountDao;
+    private final TtlCache<Long, Account> accountsById;
+    private final TtlCache<String, Long> idsByEmail;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // guarded by this, incremented on every invalidation
+    private long invalidationCount;
+
+    public CachingAccountDao(AccountDao accountDao, int maxSize, Duration ttl) {
+        this.accountDao = accountDao;
+        this.accountsById = new TtlCache<>(maxSize, ttl);
+        this.idsByEmail = new TtlCache<>(maxSize, ttl);
+    }
+
+    @Override
+    public void save(Account account) {
+        accountDao.save(account);
+    }
+
+    @Override
+    public Account findById(Long id) {
+        Account account = accountsById.get(id);
+        if (account != null) {
+            hits.incrementAndGet();
+            return account;
+        }
+        misses.incrementAndGet();
+        long invalidationCountBeforeLoad = getInvalidationCount();
+        account = accountDao.findById(id);
+        cache(account, invalidationCountBeforeLoad);
+        return account;
+    }
+
+    @Override
+    public Account findByEmail(String email) {
+        Account account = findCachedByEmail(email);
+        if (account != null) {
+            hits.incrementAndGet();
+            return account;
+        }
+        misses.incrementAndGet();
+        long invalidationCountBeforeLoad = getInvalidationCount();
+        account = accountDao.findByEmail(email);
+        cache(account, invalidationCountBeforeLoad);
+        return account;
+    }
+
+    private Account findCachedByEmail(String email) {
+        Long id = idsByEmail.get(email);
+        if (id == null) {
+            return null;
+        }
+        Account account = accountsById.get(id);
+        return account != null && email.equals(account.getEmail()) ? account : null;
+    }
+
+    private synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Caches a loaded account, unless some account was invalidated after the load started, as the loaded account can
+     * be the stale value that the invalidation removed
+     */
+    private synchronized void cache(Account account, long invalidationCountBeforeLoad) {
+        if (account != null && invalidationCount == invalidationCountBeforeLoad) {
+            accountsById.put(account.getId(), account);
+            idsByEmail.put(account.getEmail(), account.getId());
+        }
+    }
+
+    @Override
+    public List<Account> findAll() {
+        return accountDao.findAll();
+    }
+
+    @Override
+    public Page<Account> findPage(Long afterId, int limit) {
+        return accountDao.findPage(afterId, limit);
+    }
+
+    @Override
+    public void update(Account account) {
+        try {
+            accountDao.update(account);
+        } finally {
+            evict(account);
+        }
+    }
+
+    @Override
+    public void remove(Account account) {
+        try {
+            accountDao.remove(account);
+        } finally {
+            evict(account);
+        }
+    }
+
+    private synchronized void evict(Account account) {
+        invalidationCount++;
+        Account cachedAccount = accountsById.get(account.getId());
+        if (cachedAccount != null) {
+            idsByEmail.remove(cachedAccount.getEmail());
+        }
+        idsByEmail.remove(account.getEmail());
+        accountsById.remove(account.getId());
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns a share of lookups that were served from the cache
+     *
+     * @return cache hit ratio from 0 to 1
+     */
+    public double getHitRatio() {
+        long lookups = hits.get() + misses.get();
+        return lookups == 0 ? 0 : (double) hits.get() / lookups;
+    }
+}
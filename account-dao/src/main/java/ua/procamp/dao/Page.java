@@ -0,0 +1,29 @@
+package ua.procamp.dao;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * {@link Page} is a single page of a keyset (seek) pagination. It holds page content and a cursor that should be passed
+ * to the next page request. The cursor is an id of the last element on the page, or {@code null} if there are
+ * no more pages.
+ *
+ * @param <T> type of page elements
+ */
+@Getter
+@ToString
+public class Page<T> {
+    private final List<T> content;
+    private final Long nextCursor;
+
+    public Page(List<T> content, Long nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -4,6 +4,8 @@ import ua.procamp.exception.AccountDaoException;
 import ua.procamp.model.Account;
 import ua.procamp.util.TestDataGenerator;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -17,8 +19,10 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -105,6 +109,28 @@ class AccountDaoTest {
         assertEquals(account, foundAccount);
     }
 
+    @Test
+    void testFindAccountByEmailDoesNotQueryDatabaseRepeatedly() {
+        Account account = TestDataGenerator.generateAccount();
+        accountDao.save(account);
+        accountDao.findByEmail(account.getEmail());
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Account foundAccount = accountDao.findByEmail(account.getEmail());
+
+        assertEquals(account, foundAccount);
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getNaturalIdCacheHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void testFindAccountByNotExistingEmail() {
+        Account foundAccount = accountDao.findByEmail("not.existing@email.com");
+
+        assertThat(foundAccount, nullValue());
+    }
+
     @Test
     void testFindAllAccounts() {
         List<Account> accounts = TestDataGenerator.generateAccountList(3);
@@ -115,6 +141,24 @@ class AccountDaoTest {
         assertThat(accounts, everyItem(isIn(foundAccounts)));
     }
 
+    @Test
+    void testFindAccountsPage() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(5);
+        accounts.forEach(this::saveTestAccount);
+        List<Long> allIds = accountDao.findAll().stream().map(Account::getId).sorted().collect(toList());
+
+        List<Long> pagedIds = new ArrayList<>();
+        Page<Account> page = accountDao.findPage(null, 2);
+        pagedIds.addAll(page.getContent().stream().map(Account::getId).collect(toList()));
+        while (page.hasNext()) {
+            assertThat(page.getContent(), hasSize(2));
+            page = accountDao.findPage(page.getNextCursor(), 2);
+            pagedIds.addAll(page.getContent().stream().map(Account::getId).collect(toList()));
+        }
+
+        assertThat(pagedIds, equalTo(allIds));
+    }
+
     @Test
     void testUpdateAccount() {
         Account account = TestDataGenerator.generateAccount();
@@ -0,0 +1,140 @@
+package ua.procamp.dao;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.procamp.model.Account;
+import ua.procamp.util.TestDataGenerator;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CachingAccountDaoTest {
+    private static EntityManagerFactory emf;
+    private CachingAccountDao cachingAccountDao;
+
+    @BeforeAll
+    static void init() {
+        emf = Persistence.createEntityManagerFactory("SingleAccountEntityH2");
+    }
+
+    @AfterAll
+    static void destroy() {
+        emf.close();
+    }
+
+    @BeforeEach
+    void setup() {
+        cachingAccountDao = new CachingAccountDao(new AccountDaoImpl(emf), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testFindByIdIsCached() {
+        Account account = saveRandomAccount();
+
+        Account firstFound = cachingAccountDao.findById(account.getId());
+        Account secondFound = cachingAccountDao.findById(account.getId());
+
+        assertThat(secondFound, sameInstance(firstFound));
+        assertThat(cachingAccountDao.getMissCount(), equalTo(1L));
+        assertThat(cachingAccountDao.getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    void testFindByEmailSharesCacheWithFindById() {
+        Account account = saveRandomAccount();
+
+        Account foundById = cachingAccountDao.findById(account.getId());
+        Account foundByEmail = cachingAccountDao.findByEmail(account.getEmail());
+
+        assertThat(foundByEmail, sameInstance(foundById));
+        assertThat(cachingAccountDao.getHitRatio(), equalTo(0.5));
+    }
+
+    @Test
+    void testUpdateInvalidatesCache() {
+        Account account = saveRandomAccount();
+        cachingAccountDao.findByEmail(account.getEmail());
+
+        account.setBalance(BigDecimal.valueOf(777).setScale(2));
+        cachingAccountDao.update(account);
+        Account foundAccount = cachingAccountDao.findByEmail(account.getEmail());
+
+        assertThat(foundAccount.getBalance(), equalTo(account.getBalance()));
+        assertThat(cachingAccountDao.getHitCount(), equalTo(0L));
+    }
+
+    @Test
+    void testUpdateDuringLookupIsNotOverwrittenByLoadedAccount() throws Exception {
+        Account account = saveRandomAccount();
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        AtomicBoolean pauseLookup = new AtomicBoolean(true);
+        CachingAccountDao accountDao = new CachingAccountDao(new AccountDaoImpl(emf) {
+            @Override
+            public Account findById(Long id) {
+                Account foundAccount = super.findById(id);
+                if (pauseLookup.getAndSet(false)) {
+                    loaded.countDown();
+                    awaitUninterruptibly(updated);
+                }
+                return foundAccount;
+            }
+        }, 100, Duration.ofMinutes(1));
+
+        CompletableFuture<Account> lookup = CompletableFuture.supplyAsync(() -> accountDao.findById(account.getId()));
+        loaded.await(10, TimeUnit.SECONDS);
+        account.setBalance(BigDecimal.valueOf(777).setScale(2));
+        accountDao.update(account);
+        updated.countDown();
+        lookup.get(10, TimeUnit.SECONDS);
+        Account foundAccount = accountDao.findById(account.getId());
+
+        assertThat(foundAccount.getBalance(), equalTo(account.getBalance()));
+        assertThat(accountDao.getHitCount(), equalTo(0L));
+    }
+
+    @Test
+    void testRemoveInvalidatesCache() {
+        Account account = saveRandomAccount();
+        cachingAccountDao.findById(account.getId());
+
+        cachingAccountDao.remove(account);
+
+        assertThat(cachingAccountDao.findById(account.getId()), nullValue());
+    }
+
+    @Test
+    void testEntityIsStoredInSecondLevelCache() {
+        Account account = saveRandomAccount();
+        emf.getCache().evict(Account.class);
+
+        new AccountDaoImpl(emf).findById(account.getId());
+
+        assertThat(emf.getCache().contains(Account.class, account.getId()), is(true));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Account saveRandomAccount() {
+        Account account = TestDataGenerator.generateAccount();
+        cachingAccountDao.save(account);
+        return account;
+    }
+}
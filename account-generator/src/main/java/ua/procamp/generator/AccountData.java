@@ -0,0 +1,29 @@
+package ua.procamp.generator;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * {@link AccountData} holds generated data of one account, that {@link FakeAccountGenerator} passes to an account
+ * factory
+ */
+@Getter
+@Builder
+@ToString
+public class AccountData {
+    private String firstName;
+    private String lastName;
+    private String email;
+    private LocalDate birthday;
+    /**
+     * Name of the gender, either {@code MALE} or {@code FEMALE}
+     */
+    private String gender;
+    private LocalDateTime creationTime;
+    private BigDecimal balance;
+}
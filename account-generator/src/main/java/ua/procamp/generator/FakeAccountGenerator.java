@@ -0,0 +1,222 @@
+package ua.procamp.generator;
+
+import io.codearte.jfairy.Fairy;
+import io.codearte.jfairy.producer.person.Person;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@link FakeAccountGenerator} generates random accounts for tests and benchmarks. Unlike creating {@link Fairy} for
+ * each account, it keeps one {@link Fairy} instance per thread and reseeds its {@link Random} for every account, so
+ * generation is cheap and can be done in parallel.
+ * <p>
+ * Generated {@link AccountData} is turned into an account by the account factory, so the same generator is used by
+ * modules with different account classes.
+ * <p>
+ * Every account has an index, and all its data is derived from the generator seed and this index only. Emails contain
+ * the index, so they are unique within a generator. Accounts are produced by a lazy {@link Spliterator} over a range
+ * of indexes, so large datasets can be generated in parallel streams, or split into shards generated by different
+ * workers, without materializing them.
+ * <p>
+ * A generator created with a seed is deterministic: it produces exactly the same dataset on every run regardless of
+ * how it is split between threads, creation times are counted from a fixed date instead of the current time.
+ */
+public class FakeAccountGenerator<A> {
+    private static final ThreadLocal<SeededFairy> FAIRY = ThreadLocal.withInitial(SeededFairy::new);
+    private static final LocalDateTime SEEDED_CREATION_TIME = LocalDateTime.of(2018, 1, 1, 0, 0);
+    private static final LocalDate MIN_BIRTHDAY = LocalDate.of(1950, 1, 1);
+    private static final int BIRTHDAY_RANGE_DAYS = 50 * 365;
+    private static final int CREATION_TIME_RANGE_SECONDS = 365 * 24 * 60 * 60;
+
+    private final long seed;
+    private final boolean deterministic;
+    private final Function<AccountData, A> accountFactory;
+    private final AtomicLong nextIndex = new AtomicLong();
+
+    /**
+     * Creates a random generator
+     *
+     * @param accountFactory creates an account of generated data
+     */
+    public FakeAccountGenerator(Function<AccountData, A> accountFactory) {
+        this(new SplittableRandom().nextLong(), false, accountFactory);
+    }
+
+    /**
+     * Creates a deterministic generator. Generators with the same seed produce the same accounts in the same order
+     *
+     * @param seed           dataset seed
+     * @param accountFactory creates an account of generated data
+     */
+    public FakeAccountGenerator(long seed, Function<AccountData, A> accountFactory) {
+        this(seed, true, accountFactory);
+    }
+
+    private FakeAccountGenerator(long seed, boolean deterministic, Function<AccountData, A> accountFactory) {
+        this.seed = seed;
+        this.deterministic = deterministic;
+        this.accountFactory = Objects.requireNonNull(accountFactory);
+    }
+
+    public A generateAccount() {
+        return generateAccount(nextIndex.getAndIncrement());
+    }
+
+    public List<A> generateAccountList(int size) {
+        return stream(size).collect(toList());
+    }
+
+    public List<A> generateAccountListInParallel(int size) {
+        return stream(size).parallel().collect(toList());
+    }
+
+    /**
+     * Returns a lazy sequential stream of next generated accounts, which can be turned into a parallel one
+     *
+     * @param size number of accounts
+     * @return stream of accounts
+     */
+    public Stream<A> stream(long size) {
+        return StreamSupport.stream(spliterator(size), false);
+    }
+
+    public Spliterator<A> spliterator(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Number of accounts cannot be negative");
+        }
+        long fromIndex = nextIndex.getAndAdd(size);
+        return new AccountSpliterator(fromIndex, fromIndex + size);
+    }
+
+    /**
+     * Returns a lazy stream of accounts with indexes from {@code fromIndex} inclusive to {@code toIndex} exclusive.
+     * It doesn't affect accounts returned by other methods.
+     *
+     * @param fromIndex index of the first account
+     * @param toIndex   index after the last account
+     * @return stream of accounts
+     */
+    public Stream<A> stream(long fromIndex, long toIndex) {
+        if (fromIndex < 0 || fromIndex > toIndex) {
+            throw new IllegalArgumentException(String.format("Invalid range of accounts [%d, %d)", fromIndex, toIndex));
+        }
+        return StreamSupport.stream(new AccountSpliterator(fromIndex, toIndex), false);
+    }
+
+    /**
+     * Returns one of {@code shardCount} disjoint slices of a dataset of {@code totalSize} accounts, so that shards can
+     * be generated by different workers, and all shards together form the same dataset as {@code stream(0, totalSize)}
+     *
+     * @param totalSize  number of accounts in the whole dataset
+     * @param shardIndex shard index from 0 to shardCount - 1
+     * @param shardCount number of shards
+     * @return stream of accounts of the shard
+     */
+    public Stream<A> shard(long totalSize, int shardIndex, int shardCount) {
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(String.format("Invalid shard %d of %d", shardIndex, shardCount));
+        }
+        return stream(shardStart(totalSize, shardIndex, shardCount), shardStart(totalSize, shardIndex + 1, shardCount));
+    }
+
+    private static long shardStart(long totalSize, int shardIndex, int shardCount) {
+        // the first (totalSize % shardCount) shards get one extra account
+        return totalSize / shardCount * shardIndex + Math.min(shardIndex, totalSize % shardCount);
+    }
+
+    private A generateAccount(long index) {
+        SplittableRandom random = new SplittableRandom(accountSeed(index));
+        SeededFairy seededFairy = FAIRY.get();
+        seededFairy.random.setSeed(random.nextLong());
+        Person person = seededFairy.fairy.person();
+
+        AccountData accountData = AccountData.builder()
+                .firstName(person.getFirstName())
+                .lastName(person.getLastName())
+                .email(uniqueEmail(person.getEmail(), index))
+                .birthday(MIN_BIRTHDAY.plusDays(random.nextInt(BIRTHDAY_RANGE_DAYS)))
+                .gender(person.getSex().name())
+                .balance(BigDecimal.valueOf(random.nextInt(200_000), 2))
+                .creationTime(deterministic
+                        ? SEEDED_CREATION_TIME.plusSeconds(random.nextInt(CREATION_TIME_RANGE_SECONDS))
+                        : LocalDateTime.now())
+                .build();
+        return accountFactory.apply(accountData);
+    }
+
+    private long accountSeed(long index) {
+        // SplitMix64 finalizer, so neighbour indexes get unrelated seeds
+        long z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Appends account index to the local part of the email. As the index is the part after the last dot, emails of
+     * accounts with different indexes never match
+     */
+    private static String uniqueEmail(String email, long index) {
+        int at = email.lastIndexOf('@');
+        return email.substring(0, at) + "." + index + email.substring(at);
+    }
+
+    private static class SeededFairy {
+        private final Random random = new Random();
+        private final Fairy fairy = Fairy.builder().withRandom(random).build();
+    }
+
+    private class AccountSpliterator implements Spliterator<A> {
+        private long index;
+        private final long end;
+
+        private AccountSpliterator(long index, long end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(generateAccount(index++));
+            return true;
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            long middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<A> prefix = new AccountSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
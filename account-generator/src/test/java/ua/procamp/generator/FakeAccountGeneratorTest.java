@@ -0,0 +1,48 @@
+package ua.procamp.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class FakeAccountGeneratorTest {
+
+    @Test
+    void testAccountFactoryCreatesEveryAccount() {
+        List<String> emails = new FakeAccountGenerator<>(42, AccountData::getEmail).generateAccountListInParallel(1_000);
+
+        assertThat(emails, hasSize(1_000));
+        assertThat(emails, everyItem(notNullValue(String.class)));
+    }
+
+    @Test
+    void testGeneratedDataIsComplete() {
+        List<AccountData> accounts = new FakeAccountGenerator<>(Function.identity()).generateAccountList(100);
+
+        assertThat(accounts, everyItem(allOf(
+                hasProperty("firstName", notNullValue()),
+                hasProperty("lastName", notNullValue()),
+                hasProperty("email", notNullValue()),
+                hasProperty("birthday", notNullValue()),
+                hasProperty("gender", isOneOf("MALE", "FEMALE")),
+                hasProperty("creationTime", notNullValue()),
+                hasProperty("balance", notNullValue()))));
+    }
+
+    @Test
+    void testSameSeedGeneratesSameData() {
+        List<String> firstDataset = dataset(new FakeAccountGenerator<>(42, Function.identity()).stream(0, 100));
+        List<String> secondDataset = dataset(new FakeAccountGenerator<>(42, Function.identity()).stream(0, 100));
+
+        assertThat(secondDataset, equalTo(firstDataset));
+    }
+
+    private List<String> dataset(Stream<AccountData> accounts) {
+        return accounts.map(AccountData::toString).collect(toList());
+    }
+}
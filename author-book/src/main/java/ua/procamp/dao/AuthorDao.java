@@ -0,0 +1,40 @@
+package ua.procamp.dao;
+
+import ua.procamp.model.Author;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link AuthorDao} defines an API of Data-Access Object for entity {@link Author}
+ */
+public interface AuthorDao {
+
+    /**
+     * Retrieves authors with all their books by author ids. Authors, their links to books and books are loaded by
+     * a fixed number of queries that depends only on the number of ids, not on the number of books
+     *
+     * @param ids author ids
+     * @return authors with initialized books ordered by id
+     */
+    List<Author> findAllWithBooks(Collection<Long> ids);
+
+    /**
+     * Links books to an author writing the link table directly with JDBC batches, so neither {@link Author#getBooks()}
+     * nor {@link ua.procamp.model.Book#getAuthors()} is loaded. Books that are already linked to the author are
+     * skipped. Collections of entities loaded before the call are not updated.
+     *
+     * @param authorId author id
+     * @param bookIds  ids of books to link
+     */
+    void addBooks(long authorId, Collection<Long> bookIds);
+
+    /**
+     * Unlinks books from an author writing the link table directly with JDBC batches. Books that are not linked to
+     * the author are skipped.
+     *
+     * @param authorId author id
+     * @param bookIds  ids of books to unlink
+     */
+    void removeBooks(long authorId, Collection<Long> bookIds);
+}
@@ -0,0 +1,103 @@
+package ua.procamp.dao;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import ua.procamp.model.Author;
+import ua.procamp.util.EntityManagerUtil;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+public class AuthorDaoImpl implements AuthorDao {
+    /**
+     * Max number of ids bound to one IN list, so large bibliographies don't hit database limits of bind parameters
+     */
+    private static final int IDS_PER_QUERY = 500;
+    private static final int LINKS_PER_BATCH = 100;
+
+    static final String POSTGRES_INSERT_LINK_SQL =
+            "INSERT INTO author_book(author_id, book_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    static final String INSERT_LINK_SQL = "INSERT INTO author_book(author_id, book_id) " +
+            "SELECT a.id, b.id FROM author a, book b WHERE a.id = ? AND b.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM author_book l WHERE l.author_id = a.id AND l.book_id = b.id)";
+    private static final String DELETE_LINK_SQL = "DELETE FROM author_book WHERE author_id = ? AND book_id = ?";
+
+    private EntityManagerUtil emUtil;
+
+    public AuthorDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.emUtil = new EntityManagerUtil(entityManagerFactory);
+    }
+
+    @Override
+    public List<Author> findAllWithBooks(Collection<Long> ids) {
+        List<Long> sortedIds = ids.stream().distinct().sorted().collect(toList());
+        return emUtil.performReturningWithinTx(entityManager -> {
+            List<Author> authors = new ArrayList<>(sortedIds.size());
+            for (int from = 0; from < sortedIds.size(); from += IDS_PER_QUERY) {
+                List<Long> idsChunk = sortedIds.subList(from, Math.min(from + IDS_PER_QUERY, sortedIds.size()));
+                // a single collection is fetched, so the result has one row per link and no cartesian product
+                authors.addAll(entityManager.createQuery("select distinct a from Author a left join fetch a.books " +
+                        "where a.id in :ids order by a.id", Author.class)
+                        .setParameter("ids", idsChunk)
+                        .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                        .getResultList());
+            }
+            return authors;
+        });
+    }
+
+    @Override
+    public void addBooks(long authorId, Collection<Long> bookIds) {
+        writeLinks(authorId, bookIds, connection -> insertLinkSql(connection.getMetaData().getDatabaseProductName()));
+    }
+
+    @Override
+    public void removeBooks(long authorId, Collection<Long> bookIds) {
+        writeLinks(authorId, bookIds, connection -> DELETE_LINK_SQL);
+    }
+
+    private void writeLinks(long authorId, Collection<Long> bookIds, SqlFunction<Connection, String> sqlFunction) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        emUtil.performWithinTx(entityManager -> entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement linkStatement = connection.prepareStatement(sqlFunction.apply(connection))) {
+                int batchedLinks = 0;
+                for (Long bookId : bookIds) {
+                    linkStatement.setLong(1, authorId);
+                    linkStatement.setLong(2, bookId);
+                    linkStatement.addBatch();
+                    if (++batchedLinks == LINKS_PER_BATCH) {
+                        linkStatement.executeBatch();
+                        batchedLinks = 0;
+                    }
+                }
+                if (batchedLinks > 0) {
+                    linkStatement.executeBatch();
+                }
+            }
+        }));
+    }
+
+    /**
+     * Existing links are skipped by the database in the same statement, so links are never read beforehand. PostgreSQL
+     * skips them on the primary key conflict. Other databases insert a link only if it doesn't exist yet, there a link
+     * to a missing author or book is skipped instead of failing on the foreign key, and two concurrent transactions
+     * adding the same link can still fail on the primary key.
+     */
+    static String insertLinkSql(String databaseProductName) {
+        return databaseProductName.equals("PostgreSQL") ? POSTGRES_INSERT_LINK_SQL : INSERT_LINK_SQL;
+    }
+
+    @FunctionalInterface
+    private interface SqlFunction<T, R> {
+        R apply(T t) throws SQLException;
+    }
+}
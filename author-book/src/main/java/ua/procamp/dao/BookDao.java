@@ -0,0 +1,30 @@
+package ua.procamp.dao;
+
+import ua.procamp.model.Book;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link BookDao} defines an API of Data-Access Object for entity {@link Book}
+ */
+public interface BookDao {
+
+    /**
+     * Retrieves a book by its ISBN. The ISBN is resolved to an id by the natural-id cache if the second-level cache
+     * is enabled, so repeated lookups don't hit the database
+     *
+     * @param isbn book ISBN
+     * @return book or {@code null} if there is no book with such ISBN
+     */
+    Book findByIsbn(String isbn);
+
+    /**
+     * Retrieves books by ISBNs. Duplicated ISBNs are looked up once, books of ISBNs found in the natural-id cache are
+     * taken from the second-level cache, and all the others are selected by a single {@code IN} query
+     *
+     * @param isbns book ISBNs
+     * @return found books in order of the first occurrence of their ISBNs
+     */
+    List<Book> findAllByIsbn(Collection<String> isbns);
+}
@@ -0,0 +1,86 @@
+package ua.procamp.dao;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.PersistenceContext.NaturalIdHelper;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import ua.procamp.model.Book;
+import ua.procamp.util.EntityManagerUtil;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class BookDaoImpl implements BookDao {
+    private static final int ISBNS_PER_QUERY = 500;
+
+    private EntityManagerUtil emUtil;
+
+    public BookDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.emUtil = new EntityManagerUtil(entityManagerFactory);
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.unwrap(Session.class).bySimpleNaturalId(Book.class).load(isbn));
+    }
+
+    @Override
+    public List<Book> findAllByIsbn(Collection<String> isbns) {
+        Set<String> distinctIsbns = new LinkedHashSet<>(isbns);
+        return emUtil.performReturningWithinTx(entityManager -> {
+            Map<String, Book> booksByIsbn = new LinkedHashMap<>();
+            distinctIsbns.forEach(isbn -> booksByIsbn.put(isbn, null));
+            List<String> uncachedIsbns = findCached(entityManager, booksByIsbn);
+            for (int from = 0; from < uncachedIsbns.size(); from += ISBNS_PER_QUERY) {
+                List<String> isbnsChunk = uncachedIsbns.subList(from,
+                        Math.min(from + ISBNS_PER_QUERY, uncachedIsbns.size()));
+                entityManager.createQuery("select b from Book b where b.isbn in :isbns", Book.class)
+                        .setParameter("isbns", isbnsChunk)
+                        .getResultList()
+                        .forEach(book -> booksByIsbn.put(book.getIsbn(), book));
+            }
+            List<Book> books = new ArrayList<>(booksByIsbn.values());
+            books.removeIf(Objects::isNull);
+            return books;
+        });
+    }
+
+    /**
+     * Puts books whose ISBNs are resolved by the natural-id cache and which are in the second-level cache into the map
+     *
+     * @return ISBNs that are not cached
+     */
+    private List<String> findCached(EntityManager entityManager, Map<String, Book> booksByIsbn) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Book.class);
+        NaturalIdHelper naturalIdHelper = session.getPersistenceContext().getNaturalIdHelper();
+        Cache cache = session.getFactory().getCache();
+        List<String> uncachedIsbns = new ArrayList<>();
+        for (String isbn : booksByIsbn.keySet()) {
+            Serializable id = naturalIdHelper.findCachedNaturalIdResolution(persister, new Object[]{isbn});
+            // a book that is resolved, but evicted from the entity cache, is selected with the others
+            Book book = isResolved(id) && cache.contains(Book.class, id) ? entityManager.find(Book.class, id) : null;
+            if (book != null && isbn.equals(book.getIsbn())) {
+                booksByIsbn.put(isbn, book);
+            } else {
+                uncachedIsbns.add(isbn);
+            }
+        }
+        return uncachedIsbns;
+    }
+
+    private boolean isResolved(Serializable id) {
+        return id != null && id != NaturalIdHelper.INVALID_NATURAL_ID_REFERENCE;
+    }
+}
@@ -1,34 +1,37 @@
 package ua.procamp.model;
 
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
 
-/**
- * todo:
- * - implement no arguments constructor
- * - implement getters and setters for all fields
- * - implement equals() and hashCode() based on {@link Book#isbn}
- * - make setter for field {@link Book#authors} private
- * - initialize field {@link Book#authors} as new {@link HashSet}
- * <p>
- * - configure JPA entity
- * - specify table name: "book"
- * - configure auto generated identifier
- * - configure mandatory column "name" for field {@link Book#name}
- * - configure mandatory unique column "isbn" for field {@link Book#isbn}
- * <p>
- * - configure many-to-many relation as mapped on the {@link Author} side
- */
 @NoArgsConstructor
 @Getter
 @Setter
+@EqualsAndHashCode(of = "isbn")
+@Entity
+@Table(name = "book", indexes = @Index(name = "book_isbn_idx", columnList = "isbn", unique = true))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@NaturalIdCache(region = "book-natural-id")
 public class Book {
+    @Id
+    @GeneratedValue
     private Long id;
+
+    @Column(name = "name", nullable = false)
     private String name;
+
+    @NaturalId
+    @Column(name = "isbn", nullable = false)
     private String isbn;
-    private Set<Author> authors;
+
+    @Setter(AccessLevel.PRIVATE)
+    @ManyToMany(mappedBy = "books")
+    private Set<Author> authors = new HashSet<>();
 }
@@ -0,0 +1,156 @@
+package ua.procamp;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import ua.procamp.dao.AuthorDao;
+import ua.procamp.dao.AuthorDaoImpl;
+import ua.procamp.model.Author;
+import ua.procamp.model.Book;
+import ua.procamp.util.EntityManagerUtil;
+import ua.procamp.util.JdbcUtil;
+import ua.procamp.util.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static ua.procamp.util.SqlStatementAssertions.assertInsertCount;
+import static ua.procamp.util.SqlStatementAssertions.assertSelectCount;
+import static ua.procamp.util.SqlStatementAssertions.assertStatementCount;
+
+public class AuthorDaoTest {
+    private static EntityManagerUtil emUtil;
+    private static EntityManagerFactory entityManagerFactory;
+    private static AuthorDao authorDao;
+
+    @BeforeAll
+    static void setup() {
+        // statements are counted by the data source, as links are written with plain JDBC
+        DataSource dataSource = JdbcUtil.createStatementCountingDataSource(JdbcUtil.createInMemoryH2DataSource(
+                "jdbc:h2:mem:author_dao_db;DB_CLOSE_DELAY=-1", "author_user", "author_pass"));
+        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthors",
+                Map.of(AvailableSettings.JPA_NON_JTA_DATASOURCE, dataSource));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        authorDao = new AuthorDaoImpl(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void testFindAllWithBooksQueryCountDoesNotDependOnAuthorCount() {
+        for (int authorCount : new int[]{1, 10, 100}) {
+            List<Author> authors = createAuthorsWithBooks(authorCount, 3);
+            List<Long> ids = authors.stream().map(Author::getId).collect(toList());
+
+            SqlStatementCounter.reset();
+            List<Author> foundAuthors = authorDao.findAllWithBooks(ids);
+
+            assertSelectCount(1);
+            assertThat(foundAuthors, equalTo(authors));
+            for (int i = 0; i < authors.size(); i++) {
+                assertThat(foundAuthors.get(i).getBooks(), equalTo(authors.get(i).getBooks()));
+            }
+        }
+    }
+
+    @Test
+    public void testFindAllWithBooksSharedBetweenAuthors() {
+        Book sharedBook = createRandomBook();
+        List<Author> authors = Stream.generate(this::createRandomAuthor).limit(2).collect(toList());
+        authors.forEach(author -> author.addBook(sharedBook));
+        emUtil.performWithinTx(entityManager -> authors.forEach(entityManager::persist));
+
+        List<Author> foundAuthors = authorDao.findAllWithBooks(List.of(authors.get(0).getId(), authors.get(1).getId()));
+
+        assertThat(foundAuthors, hasSize(2));
+        assertThat(foundAuthors.get(0).getBooks(), contains(sharedBook));
+        assertThat(foundAuthors.get(1).getBooks(), contains(sharedBook));
+    }
+
+    @Test
+    public void testFindAllWithBooksSplitsLargeIdLists() {
+        List<Author> authors = createAuthorsWithBooks(600, 1);
+        List<Long> ids = authors.stream().map(Author::getId).collect(toList());
+
+        SqlStatementCounter.reset();
+        List<Author> foundAuthors = authorDao.findAllWithBooks(ids);
+
+        assertSelectCount(2);
+        assertThat(foundAuthors, hasSize(600));
+    }
+
+    @Test
+    public void testFindAllWithBooksWithNoIds() {
+        SqlStatementCounter.reset();
+
+        assertThat(authorDao.findAllWithBooks(List.of()), hasSize(0));
+        assertSelectCount(0);
+    }
+
+    @Test
+    public void testAddBooks() {
+        Author author = createRandomAuthor();
+        List<Book> books = Stream.generate(this::createRandomBook).limit(250).collect(toList());
+        emUtil.performWithinTx(entityManager -> {
+            entityManager.persist(author);
+            books.forEach(entityManager::persist);
+        });
+        List<Long> bookIds = books.stream().map(Book::getId).collect(toList());
+
+        SqlStatementCounter.reset();
+        authorDao.addBooks(author.getId(), bookIds.subList(0, 150));
+        // links are written in two JDBC batches, and neither the author nor its books are loaded
+        assertStatementCount(2);
+        assertInsertCount(2);
+
+        authorDao.addBooks(author.getId(), bookIds.subList(100, 250));
+
+        Author foundAuthor = authorDao.findAllWithBooks(List.of(author.getId())).get(0);
+        assertThat(foundAuthor.getBooks(), containsInAnyOrder(books.toArray()));
+    }
+
+    @Test
+    public void testRemoveBooks() {
+        List<Author> authors = createAuthorsWithBooks(1, 5);
+        Author author = authors.get(0);
+        List<Book> books = List.copyOf(author.getBooks());
+
+        authorDao.removeBooks(author.getId(), List.of(books.get(0).getId(), books.get(1).getId()));
+
+        Author foundAuthor = authorDao.findAllWithBooks(List.of(author.getId())).get(0);
+        assertThat(foundAuthor.getBooks(), containsInAnyOrder(books.get(2), books.get(3), books.get(4)));
+    }
+
+    private List<Author> createAuthorsWithBooks(int authorCount, int bookCount) {
+        List<Author> authors = Stream.generate(this::createRandomAuthor).limit(authorCount).collect(toList());
+        authors.forEach(author -> Stream.generate(this::createRandomBook).limit(bookCount).forEach(author::addBook));
+        emUtil.performWithinTx(entityManager -> authors.forEach(entityManager::persist));
+        return authors;
+    }
+
+    private Author createRandomAuthor() {
+        Author author = new Author();
+        author.setFirstName(RandomStringUtils.randomAlphabetic(20));
+        author.setLastName(RandomStringUtils.randomAlphabetic(20));
+        return author;
+    }
+
+    private Book createRandomBook() {
+        Book book = new Book();
+        book.setName(RandomStringUtils.randomAlphabetic(20));
+        book.setIsbn(RandomStringUtils.randomAlphabetic(30));
+        return book;
+    }
+}
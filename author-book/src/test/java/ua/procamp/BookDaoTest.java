@@ -0,0 +1,126 @@
+package ua.procamp;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.procamp.dao.BookDao;
+import ua.procamp.dao.BookDaoImpl;
+import ua.procamp.model.Book;
+import ua.procamp.util.CountingStatementInspector;
+import ua.procamp.util.EntityManagerUtil;
+import ua.procamp.util.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static ua.procamp.util.SqlStatementAssertions.assertSelectCount;
+import static ua.procamp.util.SqlStatementAssertions.assertStatementCount;
+
+public class BookDaoTest {
+    private static EntityManagerUtil emUtil;
+    private static EntityManagerFactory entityManagerFactory;
+    private static BookDao bookDao;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthors",
+                Map.of(AvailableSettings.STATEMENT_INSPECTOR, CountingStatementInspector.class));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        bookDao = new BookDaoImpl(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void setupCache() {
+        evictCache();
+    }
+
+    private void evictCache() {
+        // natural-id cache regions are not evicted by JPA Cache#evictAll()
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    public void testFindByIsbn() {
+        Book book = createBooks(1).get(0);
+        evictCache();
+
+        SqlStatementCounter.reset();
+        Book foundBook = bookDao.findByIsbn(book.getIsbn());
+        assertThat(foundBook, equalTo(book));
+
+        SqlStatementCounter.reset();
+        Book foundAgainBook = bookDao.findByIsbn(book.getIsbn());
+        assertThat(foundAgainBook, equalTo(book));
+        assertStatementCount(0);
+    }
+
+    @Test
+    public void testFindByNotExistingIsbn() {
+        Book foundBook = bookDao.findByIsbn(RandomStringUtils.randomAlphabetic(30));
+
+        assertThat(foundBook, nullValue());
+    }
+
+    @Test
+    public void testFindAllByIsbnUsesSingleQuery() {
+        List<Book> books = createBooks(20);
+        evictCache();
+        List<String> isbns = new ArrayList<>();
+        books.forEach(book -> isbns.add(book.getIsbn()));
+        isbns.add(books.get(0).getIsbn());
+        isbns.add(RandomStringUtils.randomAlphabetic(30));
+
+        SqlStatementCounter.reset();
+        List<Book> foundBooks = bookDao.findAllByIsbn(isbns);
+
+        assertSelectCount(1);
+        assertThat(foundBooks, equalTo(books));
+    }
+
+    @Test
+    public void testFindAllByIsbnDoesNotQueryCachedIsbns() {
+        List<Book> books = createBooks(10);
+        evictCache();
+        List<String> isbns = books.stream().map(Book::getIsbn).collect(toList());
+        bookDao.findAllByIsbn(isbns.subList(0, 5));
+
+        SqlStatementCounter.reset();
+        List<Book> foundBooks = bookDao.findAllByIsbn(isbns);
+        assertSelectCount(1);
+        assertThat(foundBooks, equalTo(books));
+
+        SqlStatementCounter.reset();
+        List<Book> foundAgainBooks = bookDao.findAllByIsbn(isbns);
+        assertStatementCount(0);
+        assertThat(foundAgainBooks, equalTo(books));
+    }
+
+    private List<Book> createBooks(int count) {
+        List<Book> books = Stream.generate(this::createRandomBook).limit(count).collect(toList());
+        emUtil.performWithinTx(entityManager -> books.forEach(entityManager::persist));
+        return books;
+    }
+
+    private Book createRandomBook() {
+        Book book = new Book();
+        book.setName(RandomStringUtils.randomAlphabetic(20));
+        book.setIsbn(RandomStringUtils.randomAlphabetic(30));
+        return book;
+    }
+}
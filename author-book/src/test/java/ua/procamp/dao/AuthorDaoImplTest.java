@@ -0,0 +1,27 @@
+package ua.procamp.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AuthorDaoImplTest {
+
+    @Test
+    public void testPostgresLinksAreInsertedOnConflictDoNothing() {
+        String sql = AuthorDaoImpl.insertLinkSql("PostgreSQL");
+
+        assertThat(sql, startsWith("INSERT INTO author_book(author_id, book_id) VALUES (?, ?)"));
+        assertThat(sql, endsWith("ON CONFLICT DO NOTHING"));
+    }
+
+    @Test
+    public void testOtherDatabasesInsertOnlyMissingLinks() {
+        for (String databaseProductName : new String[]{"H2", "MySQL", "Oracle"}) {
+            String sql = AuthorDaoImpl.insertLinkSql(databaseProductName);
+
+            assertThat(sql, equalTo(AuthorDaoImpl.INSERT_LINK_SQL));
+            assertThat(sql, containsString("NOT EXISTS"));
+        }
+    }
+}
@@ -2,6 +2,9 @@ package ua.procamp.dao;
 
 import ua.procamp.model.Company;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CompanyDao {
     /**
      * Retrieves a {@link Company} with all its products by company id
@@ -10,4 +13,21 @@ public interface CompanyDao {
      * @return company with all its products
      */
     Company findByIdFetchProducts(Long id);
+
+    /**
+     * Retrieves companies with all their products by company ids using a single join fetch query. As join fetch
+     * can't be limited in the database, a page should be selected as a list of ids first
+     *
+     * @param ids company ids
+     * @return companies with all their products ordered by id
+     */
+    List<Company> findAllFetchProducts(Collection<Long> ids);
+
+    /**
+     * Retrieves companies with all their products by company ids using {@link Company#PRODUCTS_GRAPH} entity graph
+     *
+     * @param ids company ids
+     * @return companies with all their products ordered by id
+     */
+    List<Company> findAllWithProductsGraph(Collection<Long> ids);
 }
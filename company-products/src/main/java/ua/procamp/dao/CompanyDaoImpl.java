@@ -1,8 +1,14 @@
 package ua.procamp.dao;
 
+import ua.procamp.exception.CompanyDaoException;
+import org.hibernate.jpa.QueryHints;
 import ua.procamp.model.Company;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 public class CompanyDaoImpl implements CompanyDao {
     private EntityManagerFactory entityManagerFactory;
@@ -13,6 +19,56 @@ public class CompanyDaoImpl implements CompanyDao {
 
     @Override
     public Company findByIdFetchProducts(Long id) {
-        throw new UnsupportedOperationException("I'm still not implemented!");
+        return readWithinTx(entityManager ->
+                        entityManager.createQuery("select c from Company c left join fetch c.products where c.id = :id",
+                                Company.class)
+                                .setParameter("id", id)
+                                .getSingleResult(),
+                String.format("Error finding company by id = %d", id));
+    }
+
+    @Override
+    public List<Company> findAllFetchProducts(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // distinct removes duplicated companies from the result, it's not needed in SQL
+        return readWithinTx(entityManager ->
+                        entityManager.createQuery("select distinct c from Company c left join fetch c.products " +
+                                "where c.id in :ids order by c.id", Company.class)
+                                .setParameter("ids", ids)
+                                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                                .getResultList(),
+                String.format("Error finding companies by ids = %s", ids));
+    }
+
+    @Override
+    public List<Company> findAllWithProductsGraph(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return readWithinTx(entityManager ->
+                        entityManager.createQuery("select distinct c from Company c where c.id in :ids order by c.id",
+                                Company.class)
+                                .setParameter("ids", ids)
+                                .setHint(QueryHints.HINT_FETCHGRAPH, entityManager.getEntityGraph(Company.PRODUCTS_GRAPH))
+                                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                                .getResultList(),
+                String.format("Error finding companies by ids = %s", ids));
+    }
+
+    private <T> T readWithinTx(Function<EntityManager, T> entityManagerFunction, String errorMessage) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        try {
+            T result = entityManagerFunction.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } catch (Exception e) {
+            entityManager.getTransaction().rollback();
+            throw new CompanyDaoException(errorMessage, e);
+        } finally {
+            entityManager.close();
+        }
     }
 }
@@ -2,39 +2,38 @@ package ua.procamp.model;
 
 import lombok.*;
 
+import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
-/**
- * todo:
- * - implement no arguments constructor
- * - implement getters and setters for all fields
- * - implement equals() and hashCode() based on identifier field
- * - make setter for field {@link Company#products} private
- * - initialize field {@link Company#products} as new {@link ArrayList}
- * - implement a helper {@link Company#addProduct(Product)} that establishes a relation on both sides
- * - implement a helper {@link Company#removeProduct(Product)} that drops a relation on both sides
- * <p>
- * - configure JPA entity
- * - specify table name: "company"
- * - configure auto generated identifier
- * - configure mandatory column "name" for field {@link Company#name}
- * <p>
- * - configure one to many relationship as mapped on the child side
- */
 @NoArgsConstructor
 @Getter
 @Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(name = "company")
+@NamedEntityGraph(name = Company.PRODUCTS_GRAPH, attributeNodes = @NamedAttributeNode("products"))
 public class Company {
+    public static final String PRODUCTS_GRAPH = "Company.products";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    @Column(name = "name", nullable = false)
     private String name;
+
+    @Setter(AccessLevel.PRIVATE)
+    @OneToMany(mappedBy = "company")
     private List<Product> products = new ArrayList<>();
 
     public void addProduct(Product product) {
-        throw new UnsupportedOperationException("I'm still not implemented!");
+        products.add(product);
+        product.setCompany(this);
     }
 
     public void removeProduct(Product product) {
-        throw new UnsupportedOperationException("I'm still not implemented!");
+        products.remove(product);
+        product.setCompany(null);
     }
 }
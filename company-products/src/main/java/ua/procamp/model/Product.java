@@ -1,28 +1,27 @@
 package ua.procamp.model;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-/**
- * todo:
- * - implement no arguments constructor
- * - implement getters and setters for all fields
- * - implement equals() and hashCode() based on identifier field
- * <p>
- * - configure JPA entity
- * - specify table name: "product"
- * - configure auto generated identifier
- * - configure mandatory column "name" for field {@link Product#name}
- * <p>
- * - configure lazy many-to-one relation between {@link Product} and {@link Company}
- * - configure foreign key column "company_id" references company table
- */
+import javax.persistence.*;
+
 @NoArgsConstructor
 @Getter
 @Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(name = "product")
 public class Product {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    @Column(name = "name", nullable = false)
     private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id")
     private Company company;
 }
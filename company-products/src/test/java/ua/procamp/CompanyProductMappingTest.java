@@ -4,9 +4,12 @@ import ua.procamp.dao.CompanyDao;
 import ua.procamp.dao.CompanyDaoImpl;
 import ua.procamp.model.Company;
 import ua.procamp.model.Product;
+import ua.procamp.util.CountingStatementInspector;
 import ua.procamp.util.EntityManagerUtil;
+import ua.procamp.util.SqlStatementCounter;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.hibernate.LazyInitializationException;
+import org.hibernate.cfg.AvailableSettings;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -18,12 +21,16 @@ import javax.persistence.PersistenceException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.fail;
+import static ua.procamp.util.SqlStatementAssertions.assertSelectCount;
 
 public class CompanyProductMappingTest {
     private static EntityManagerUtil emUtil;
@@ -32,7 +39,8 @@ public class CompanyProductMappingTest {
 
     @BeforeAll
     static void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("CompanyProducts");
+        entityManagerFactory = Persistence.createEntityManagerFactory("CompanyProducts",
+                Map.of(AvailableSettings.STATEMENT_INSPECTOR, CountingStatementInspector.class));
         emUtil = new EntityManagerUtil(entityManagerFactory);
         companyDao = new CompanyDaoImpl(entityManagerFactory);
     }
@@ -219,9 +227,11 @@ public class CompanyProductMappingTest {
             entityManager.persist(product);
         });
 
+        SqlStatementCounter.reset();
         Company foundCompany = companyDao.findByIdFetchProducts(company.getId());
         assertThat(foundCompany, equalTo(company));
         assertThat(foundCompany.getProducts(), hasItem(product));
+        assertSelectCount(1);
     }
 
     @Test
@@ -229,9 +239,62 @@ public class CompanyProductMappingTest {
         var company = createRandomCompany();
         emUtil.performWithinTx(entityManager -> entityManager.persist(company));
 
+        SqlStatementCounter.reset();
         Company foundCompany = companyDao.findByIdFetchProducts(company.getId());
         assertThat(foundCompany, equalTo(company));
         assertThat(foundCompany.getProducts(), hasSize(0));
+        assertSelectCount(1);
+    }
+
+    @Test
+    public void testFindAllFetchProductsQueryCountDoesNotDependOnCompanyCount() {
+        for (int companyCount : new int[]{1, 5, 20}) {
+            List<Company> companies = createCompaniesWithProducts(companyCount, 3);
+            List<Long> ids = companies.stream().map(Company::getId).collect(toList());
+
+            SqlStatementCounter.reset();
+            List<Company> foundCompanies = companyDao.findAllFetchProducts(ids);
+
+            assertSelectCount(1);
+            assertThat(foundCompanies, equalTo(companies));
+            foundCompanies.forEach(company -> assertThat(company.getProducts(), hasSize(3)));
+        }
+    }
+
+    @Test
+    public void testFindAllWithProductsGraphQueryCountDoesNotDependOnCompanyCount() {
+        for (int companyCount : new int[]{1, 5, 20}) {
+            List<Company> companies = createCompaniesWithProducts(companyCount, 3);
+            List<Long> ids = companies.stream().map(Company::getId).collect(toList());
+
+            SqlStatementCounter.reset();
+            List<Company> foundCompanies = companyDao.findAllWithProductsGraph(ids);
+
+            assertSelectCount(1);
+            assertThat(foundCompanies, equalTo(companies));
+            foundCompanies.forEach(company -> assertThat(company.getProducts(), hasSize(3)));
+        }
+    }
+
+    @Test
+    public void testFindAllFetchProductsWithNoIds() {
+        SqlStatementCounter.reset();
+
+        assertThat(companyDao.findAllFetchProducts(List.of()), hasSize(0));
+        assertSelectCount(0);
+    }
+
+    private List<Company> createCompaniesWithProducts(int companyCount, int productCount) {
+        List<Company> companies = Stream.generate(this::createRandomCompany).limit(companyCount).collect(toList());
+        emUtil.performWithinTx(entityManager -> companies.forEach(company -> {
+            entityManager.persist(company);
+            for (int i = 0; i < productCount; i++) {
+                Product product = createRandomProduct();
+                company.addProduct(product);
+                entityManager.persist(product);
+            }
+        }));
+        return companies;
     }
 
     @Test
@@ -0,0 +1,19 @@
+package ua.procamp.dao;
+
+import ua.procamp.model.Employee;
+
+import java.util.List;
+
+/**
+ * {@link EmployeeDao} defines an API of Data-Access Object for entity {@link Employee}
+ */
+public interface EmployeeDao {
+
+    /**
+     * Returns all employees with their profiles. Employees and profiles are loaded by a single query, employees
+     * without a profile are included as well
+     *
+     * @return list of employees with optional profiles ordered by employee id
+     */
+    List<EmployeeWithProfile> findAllWithProfiles();
+}
@@ -0,0 +1,30 @@
+package ua.procamp.dao;
+
+import ua.procamp.model.Employee;
+import ua.procamp.model.EmployeeProfile;
+import ua.procamp.util.EntityManagerUtil;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+public class EmployeeDaoImpl implements EmployeeDao {
+    private EntityManagerUtil emUtil;
+
+    public EmployeeDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.emUtil = new EntityManagerUtil(entityManagerFactory);
+    }
+
+    @Override
+    public List<EmployeeWithProfile> findAllWithProfiles() {
+        // a profile shares the id with its employee, so it's joined by the primary key. Entities are selected
+        // as a tuple, as passing them to a constructor expression makes Hibernate select ids and load each entity
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("select e, p from Employee e " +
+                        "left join EmployeeProfile p on p.id = e.id order by e.id", Object[].class)
+                        .getResultList().stream()
+                        .map(row -> new EmployeeWithProfile((Employee) row[0], (EmployeeProfile) row[1]))
+                        .collect(toList()));
+    }
+}
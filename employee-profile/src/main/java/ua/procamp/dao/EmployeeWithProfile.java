@@ -0,0 +1,26 @@
+package ua.procamp.dao;
+
+import lombok.Getter;
+import lombok.ToString;
+import ua.procamp.model.Employee;
+import ua.procamp.model.EmployeeProfile;
+
+/**
+ * {@link EmployeeWithProfile} is an {@link Employee} loaded together with its {@link EmployeeProfile}. The profile is
+ * {@code null} if the employee doesn't have one.
+ */
+@Getter
+@ToString
+public class EmployeeWithProfile {
+    private final Employee employee;
+    private final EmployeeProfile profile;
+
+    public EmployeeWithProfile(Employee employee, EmployeeProfile profile) {
+        this.employee = employee;
+        this.profile = profile;
+    }
+
+    public boolean hasProfile() {
+        return profile != null;
+    }
+}
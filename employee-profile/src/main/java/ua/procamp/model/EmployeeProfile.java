@@ -1,28 +1,38 @@
 package ua.procamp.model;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
+
+import javax.persistence.*;
 
 /**
- * todo:
- * - implement not argument constructor
- * - implement getters and setters
- * - implement equals and hashCode based on identifier field
- *
- * - configure JPA entity
- * - specify table name: "employee_profile"
- * - configure not nullable columns: position, department
- *
- * - map relation between {@link Employee} and {@link EmployeeProfile} using foreign_key column: "employee_id"
- * - configure a derived identifier. E.g. map "employee_id" column should be also a primary key (id) for this entity
+ * {@link EmployeeProfile} shares the primary key with its {@link Employee}: "employee_id" is both the primary key and
+ * the foreign key. The relation is mapped on this side only, so loading an employee never requires a select of its
+ * profile, and the profile of a known employee is found by the same id.
  */
 @NoArgsConstructor
 @Getter
 @Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(name = "employee_profile")
 public class EmployeeProfile {
+    @Id
     private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
+    @JoinColumn(name = "employee_id")
     private Employee employee;
+
+    @Column(name = "position", nullable = false)
     private String position;
+
+    @Column(name = "department", nullable = false)
     private String department;
 }
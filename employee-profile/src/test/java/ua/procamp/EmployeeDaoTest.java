@@ -0,0 +1,108 @@
+package ua.procamp;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.procamp.dao.EmployeeDao;
+import ua.procamp.dao.EmployeeDaoImpl;
+import ua.procamp.dao.EmployeeWithProfile;
+import ua.procamp.model.Employee;
+import ua.procamp.model.EmployeeProfile;
+import ua.procamp.util.CountingStatementInspector;
+import ua.procamp.util.EntityManagerUtil;
+import ua.procamp.util.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static ua.procamp.util.SqlStatementAssertions.assertSelectCount;
+
+public class EmployeeDaoTest {
+    private EntityManagerUtil emUtil;
+    private EntityManagerFactory entityManagerFactory;
+    private EmployeeDao employeeDao;
+
+    @BeforeEach
+    public void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("Employees",
+                Map.of(AvailableSettings.STATEMENT_INSPECTOR, CountingStatementInspector.class));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        employeeDao = new EmployeeDaoImpl(entityManagerFactory);
+    }
+
+    @AfterEach
+    public void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    public void testFindAllWithProfilesUsesSingleQuery() {
+        List<Employee> employees = new ArrayList<>();
+        List<EmployeeProfile> profiles = new ArrayList<>();
+        emUtil.performWithinTx(entityManager -> {
+            for (int i = 0; i < 30; i++) {
+                Employee employee = createRandomEmployee();
+                entityManager.persist(employee);
+                employees.add(employee);
+                // every other employee has a profile
+                EmployeeProfile profile = null;
+                if (i % 2 == 0) {
+                    profile = createRandomEmployeeProfile();
+                    profile.setEmployee(employee);
+                    entityManager.persist(profile);
+                }
+                profiles.add(profile);
+            }
+        });
+
+        SqlStatementCounter.reset();
+        List<EmployeeWithProfile> foundEmployees = employeeDao.findAllWithProfiles();
+
+        assertThat(foundEmployees, hasSize(30));
+        for (int i = 0; i < foundEmployees.size(); i++) {
+            EmployeeWithProfile foundEmployee = foundEmployees.get(i);
+            assertThat(foundEmployee.getEmployee(), equalTo(employees.get(i)));
+            assertThat(foundEmployee.getEmployee().getEmail(), equalTo(employees.get(i).getEmail()));
+            assertThat(foundEmployee.getProfile(), equalTo(profiles.get(i)));
+            if (foundEmployee.hasProfile()) {
+                assertThat(foundEmployee.getProfile().getPosition(), equalTo(profiles.get(i).getPosition()));
+                // an enhanced profile (-Pbytecode-enhancement) doesn't keep a proxy of its employee, and can't load it once detached
+                if (!(foundEmployee.getProfile() instanceof PersistentAttributeInterceptable)) {
+                    assertThat(foundEmployee.getProfile().getEmployee(), sameInstance(foundEmployee.getEmployee()));
+                }
+            }
+        }
+        assertSelectCount(1);
+    }
+
+    @Test
+    public void testFindAllWithProfilesWithNoEmployees() {
+        SqlStatementCounter.reset();
+
+        assertThat(employeeDao.findAllWithProfiles(), hasSize(0));
+        assertSelectCount(1);
+    }
+
+    private Employee createRandomEmployee() {
+        Employee employee = new Employee();
+        employee.setEmail(RandomStringUtils.randomAlphabetic(15));
+        employee.setFistName(RandomStringUtils.randomAlphabetic(15));
+        employee.setLastName(RandomStringUtils.randomAlphabetic(15));
+        return employee;
+    }
+
+    private EmployeeProfile createRandomEmployeeProfile() {
+        EmployeeProfile employeeProfile = new EmployeeProfile();
+        employeeProfile.setDepartment(RandomStringUtils.randomAlphabetic(15));
+        employeeProfile.setPosition(RandomStringUtils.randomAlphabetic(15));
+        return employeeProfile;
+    }
+}
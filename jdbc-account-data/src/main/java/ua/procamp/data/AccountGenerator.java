@@ -0,0 +1,37 @@
+package ua.procamp.data;
+
+import ua.procamp.generator.AccountData;
+import ua.procamp.generator.FakeAccountGenerator;
+import ua.procamp.model.Account;
+import ua.procamp.model.Gender;
+
+/**
+ * {@link AccountGenerator} is a {@link FakeAccountGenerator} of {@link Account}
+ */
+public class AccountGenerator extends FakeAccountGenerator<Account> {
+
+    public AccountGenerator() {
+        super(AccountGenerator::createAccount);
+    }
+
+    /**
+     * Creates a deterministic generator. Generators with the same seed produce the same accounts in the same order
+     *
+     * @param seed dataset seed
+     */
+    public AccountGenerator(long seed) {
+        super(seed, AccountGenerator::createAccount);
+    }
+
+    private static Account createAccount(AccountData accountData) {
+        Account account = new Account();
+        account.setFirstName(accountData.getFirstName());
+        account.setLastName(accountData.getLastName());
+        account.setEmail(accountData.getEmail());
+        account.setBirthday(accountData.getBirthday());
+        account.setGender(Gender.valueOf(accountData.getGender()));
+        account.setBalance(accountData.getBalance());
+        account.setCreationTime(accountData.getCreationTime());
+        return account;
+    }
+}
@@ -0,0 +1,187 @@
+package ua.procamp.data;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import ua.procamp.model.Account;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * {@link AccountLoader} bulk loads accounts into the {@code account} table, whose {@code id} is generated by
+ * the database. Accounts are consumed one by one from a stream, so a dataset of any size can be loaded straight from
+ * {@link AccountGenerator} without materializing it.
+ * <p>
+ * PostgreSQL is loaded with {@code COPY ... FROM STDIN}, accounts are written to the copy stream as CSV in chunks.
+ * Other databases (e.g. H2) are loaded with multi-row {@code INSERT} statements sent in JDBC batches. The whole load
+ * is performed in a single transaction.
+ */
+public class AccountLoader {
+    private static final String COLUMNS = "first_name, last_name, email, birthday, gender, creation_time, balance";
+    private static final String COPY_SQL = "COPY account(" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final int COLUMN_COUNT = 7;
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+    private static final int DEFAULT_ROWS_PER_INSERT = 100;
+    private static final int INSERTS_PER_BATCH = 50;
+
+    private final DataSource dataSource;
+    private final int rowsPerInsert;
+
+    public AccountLoader(DataSource dataSource) {
+        this(dataSource, DEFAULT_ROWS_PER_INSERT);
+    }
+
+    public AccountLoader(DataSource dataSource, int rowsPerInsert) {
+        if (rowsPerInsert < 1) {
+            throw new IllegalArgumentException("Rows per insert should be positive");
+        }
+        this.dataSource = dataSource;
+        this.rowsPerInsert = rowsPerInsert;
+    }
+
+    /**
+     * Loads all accounts of the stream. The stream is consumed lazily, and closed after loading
+     *
+     * @param accounts accounts to load
+     * @return number of loaded accounts
+     */
+    public long load(Stream<Account> accounts) throws SQLException {
+        try (Stream<Account> accountStream = accounts;
+             Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long loaded = isPostgres(connection)
+                        ? copy(connection, accountStream.iterator())
+                        : insert(connection, accountStream.iterator());
+                connection.commit();
+                return loaded;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    private long copy(Connection connection, Iterator<Account> accounts) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder chunk = new StringBuilder(COPY_CHUNK_SIZE + 1024);
+            while (accounts.hasNext()) {
+                appendCsvRow(chunk, accounts.next());
+                if (chunk.length() >= COPY_CHUNK_SIZE) {
+                    writeToCopy(copyIn, chunk);
+                }
+            }
+            writeToCopy(copyIn, chunk);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void writeToCopy(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private void appendCsvRow(StringBuilder row, Account account) {
+        appendCsvString(row, account.getFirstName()).append(',');
+        appendCsvString(row, account.getLastName()).append(',');
+        appendCsvString(row, account.getEmail()).append(',');
+        row.append(account.getBirthday()).append(',');
+        appendCsvString(row, account.getGender().name()).append(',');
+        row.append(Timestamp.valueOf(account.getCreationTime())).append(',');
+        if (account.getBalance() != null) {
+            row.append(account.getBalance().toPlainString());
+        }
+        row.append('\n');
+    }
+
+    private StringBuilder appendCsvString(StringBuilder row, String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        return row.append('"');
+    }
+
+    private long insert(Connection connection, Iterator<Account> accounts) throws SQLException {
+        long loaded = 0;
+        // only one statement worth of accounts is kept in memory
+        List<Account> rows = new ArrayList<>(rowsPerInsert);
+        try (PreparedStatement insertStatement = connection.prepareStatement(createInsertSql(rowsPerInsert))) {
+            int batchedInserts = 0;
+            while (accounts.hasNext()) {
+                rows.add(accounts.next());
+                if (rows.size() == rowsPerInsert) {
+                    setRowsParameters(insertStatement, rows);
+                    insertStatement.addBatch();
+                    loaded += rows.size();
+                    rows.clear();
+                    if (++batchedInserts == INSERTS_PER_BATCH) {
+                        insertStatement.executeBatch();
+                        batchedInserts = 0;
+                    }
+                }
+            }
+            if (batchedInserts > 0) {
+                insertStatement.executeBatch();
+            }
+        }
+        if (!rows.isEmpty()) {
+            try (PreparedStatement insertStatement = connection.prepareStatement(createInsertSql(rows.size()))) {
+                setRowsParameters(insertStatement, rows);
+                loaded += insertStatement.executeUpdate();
+            }
+        }
+        return loaded;
+    }
+
+    private void setRowsParameters(PreparedStatement insertStatement, List<Account> rows) throws SQLException {
+        for (int row = 0; row < rows.size(); row++) {
+            setRowParameters(insertStatement, row, rows.get(row));
+        }
+    }
+
+    private void setRowParameters(PreparedStatement insertStatement, int row, Account account) throws SQLException {
+        int offset = row * COLUMN_COUNT;
+        insertStatement.setString(offset + 1, account.getFirstName());
+        insertStatement.setString(offset + 2, account.getLastName());
+        insertStatement.setString(offset + 3, account.getEmail());
+        insertStatement.setDate(offset + 4, Date.valueOf(account.getBirthday()));
+        insertStatement.setString(offset + 5, account.getGender().name());
+        insertStatement.setTimestamp(offset + 6, Timestamp.valueOf(account.getCreationTime()));
+        insertStatement.setBigDecimal(offset + 7, account.getBalance());
+    }
+
+    private static String createInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO account(" + COLUMNS + ") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ",").append("(?,?,?,?,?,?,?)");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package ua.procamp.data;
+
+import org.junit.jupiter.api.Test;
+import ua.procamp.generator.AccountData;
+import ua.procamp.generator.FakeAccountGenerator;
+import ua.procamp.model.Account;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AccountGeneratorTest {
+
+    @Test
+    void testAccountsAreCreatedOfGeneratedData() {
+        List<Account> accounts = new AccountGenerator(42).generateAccountList(100);
+        List<AccountData> accountDataList = new FakeAccountGenerator<>(42, Function.identity()).generateAccountList(100);
+
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            AccountData accountData = accountDataList.get(i);
+            assertThat(account.getId(), nullValue());
+            assertThat(account.getFirstName(), equalTo(accountData.getFirstName()));
+            assertThat(account.getLastName(), equalTo(accountData.getLastName()));
+            assertThat(account.getEmail(), equalTo(accountData.getEmail()));
+            assertThat(account.getBirthday(), equalTo(accountData.getBirthday()));
+            assertThat(account.getGender().name(), equalTo(accountData.getGender()));
+            assertThat(account.getCreationTime(), equalTo(accountData.getCreationTime()));
+            assertThat(account.getBalance(), equalTo(accountData.getBalance()));
+        }
+    }
+
+    @Test
+    void testRandomGeneratorCreatesUniqueEmails() {
+        long uniqueEmails = Accounts.generateAccountList(1_000).stream()
+                .map(Account::getEmail)
+                .distinct()
+                .count();
+
+        assertThat(uniqueEmails, equalTo(1_000L));
+    }
+}
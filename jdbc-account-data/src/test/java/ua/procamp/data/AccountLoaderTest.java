@@ -0,0 +1,62 @@
+package ua.procamp.data;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.procamp.model.Account;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountLoaderTest {
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:account_loader_db;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS account");
+            statement.execute("CREATE TABLE account(id BIGINT AUTO_INCREMENT PRIMARY KEY, first_name VARCHAR(255) NOT NULL, " +
+                    "last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL UNIQUE, birthday DATE NOT NULL, " +
+                    "gender VARCHAR(255) NOT NULL, creation_time TIMESTAMP NOT NULL, balance DECIMAL(19, 4))");
+        }
+    }
+
+    @Test
+    void testLoadAccounts() throws SQLException {
+        AccountLoader accountLoader = new AccountLoader(dataSource, 100);
+
+        long loaded = accountLoader.load(new AccountGenerator(42).stream(10_050));
+
+        assertThat(loaded, equalTo(10_050L));
+        assertThat(countAccounts(), equalTo(10_050L));
+    }
+
+    @Test
+    void testLoadIsRolledBackOnFailure() throws SQLException {
+        AccountLoader accountLoader = new AccountLoader(dataSource, 10);
+        AccountGenerator accountGenerator = new AccountGenerator(42);
+
+        // the same accounts twice violate email uniqueness
+        Stream<Account> accounts = Stream.concat(accountGenerator.stream(0, 500), accountGenerator.stream(0, 500));
+
+        assertThrows(SQLException.class, () -> accountLoader.load(accounts));
+        assertThat(countAccounts(), equalTo(0L));
+    }
+
+    private long countAccounts() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM account")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package ua.procamp.util;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 
@@ -17,33 +15,26 @@ import static java.util.stream.Collectors.joining;
 public class FileReader {
 
     /**
-     * Returns a {@link String} that contains whole text from the file specified by name.
+     * Returns a {@link String} that contains whole text from the file specified by name. The file is read as
+     * a classpath resource, so it can be packed into a jar.
      *
      * @param fileName a name of a text file
      * @return string that holds whole file content
      */
     public static String readWholeFileFromResources(String fileName) {
-        Path filePath = createPathFromFileName(fileName);
-        try (Stream<String> fileLinesStream = openFileLinesStream(filePath)) {
-            return fileLinesStream.collect(joining("\n"));
-        }
-    }
-
-    private static Stream<String> openFileLinesStream(Path filePath) {
-        try {
-            return Files.lines(filePath);
+        try (BufferedReader reader = openFileReader(fileName)) {
+            return reader.lines().collect(joining("\n"));
         } catch (IOException e) {
-            throw new FileReaderException("Cannot create stream of file lines!", e);
+            throw new FileReaderException("Cannot read file " + fileName, e);
         }
     }
 
-    private static Path createPathFromFileName(String fileName) {
+    private static BufferedReader openFileReader(String fileName) throws IOException {
         Objects.requireNonNull(fileName);
-        URL fileUrl = FileReader.class.getClassLoader().getResource(fileName);
-        try {
-            return Paths.get(fileUrl.toURI());
-        } catch (URISyntaxException e) {
-            throw new FileReaderException("Invalid file URL",e);
+        InputStream fileStream = FileReader.class.getClassLoader().getResourceAsStream(fileName);
+        if (fileStream == null) {
+            throw new IOException("File not found in resources");
         }
+        return new BufferedReader(new InputStreamReader(fileStream, StandardCharsets.UTF_8));
     }
 }
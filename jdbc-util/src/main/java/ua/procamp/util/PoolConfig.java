@@ -0,0 +1,69 @@
+package ua.procamp.util;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * {@link PoolConfig} holds settings of a {@link PooledDataSource}. Use {@link PoolConfig#builder()} to override
+ * the defaults, or {@link PoolConfig#defaultConfig()} to get them as is.
+ */
+@Getter
+@Builder
+@ToString
+public class PoolConfig {
+    /**
+     * Maximum number of physical connections (idle and borrowed) the pool can hold
+     */
+    @Builder.Default
+    private int maxPoolSize = 10;
+
+    /**
+     * How long a connection can stay idle in the pool before it is closed by eviction
+     */
+    @Builder.Default
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Maximum lifetime of a physical connection. Expired connections are closed instead of being returned to the pool
+     */
+    @Builder.Default
+    private Duration maxLifetime = Duration.ofMinutes(30);
+
+    /**
+     * How long {@link PooledDataSource#getConnection()} waits for a free connection before it fails
+     */
+    @Builder.Default
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Whether an idle connection is checked with {@link java.sql.Connection#isValid(int)} before it is handed out
+     */
+    @Builder.Default
+    private boolean validateOnBorrow = true;
+
+    /**
+     * Timeout in seconds that is passed to {@link java.sql.Connection#isValid(int)}
+     */
+    @Builder.Default
+    private int validationTimeoutSeconds = 5;
+
+    /**
+     * How often idle and expired connections are evicted in background. {@link Duration#ZERO} disables the
+     * background eviction, so connections are only checked when they are borrowed or returned.
+     */
+    @Builder.Default
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of prepared statements cached per physical connection. Zero disables statement caching.
+     */
+    @Builder.Default
+    private int statementCacheSize = 0;
+
+    public static PoolConfig defaultConfig() {
+        return PoolConfig.builder().build();
+    }
+}
@@ -0,0 +1,45 @@
+package ua.procamp.util;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * {@link PoolMetrics} is an immutable snapshot of {@link PooledDataSource} state and counters at some moment of time.
+ */
+@Getter
+@Builder
+@ToString
+public class PoolMetrics {
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int pendingThreads;
+    private final long connectionsCreated;
+    private final long connectionsDestroyed;
+    private final long borrowCount;
+    private final long borrowTimeouts;
+    private final long validationFailures;
+    private final long totalBorrowWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    /**
+     * Returns an average time in nanoseconds that threads spent waiting for a connection
+     *
+     * @return average borrow wait time in nanoseconds
+     */
+    public long getAverageBorrowWaitNanos() {
+        return borrowCount == 0 ? 0 : totalBorrowWaitNanos / borrowCount;
+    }
+
+    /**
+     * Returns a share of prepared statements that were taken from the statement cache
+     *
+     * @return statement cache hit ratio from 0 to 1
+     */
+    public double getStatementCacheHitRatio() {
+        long requests = statementCacheHits + statementCacheMisses;
+        return requests == 0 ? 0 : (double) statementCacheHits / requests;
+    }
+}
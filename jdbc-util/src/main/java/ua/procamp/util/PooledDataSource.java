@@ -0,0 +1,409 @@
+package ua.procamp.util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * {@link PooledDataSource} is a bounded connection pool that wraps any {@link DataSource}. It keeps physical
+ * connections opened by the target data source and hands them out wrapped into a proxy, whose {@link Connection#close()}
+ * returns the physical connection back to the pool instead of closing it.
+ * <p>
+ * The pool never holds more than {@link PoolConfig#getMaxPoolSize()} connections. If all of them are borrowed,
+ * {@link PooledDataSource#getConnection()} waits up to {@link PoolConfig#getBorrowTimeout()} and throws
+ * {@link SQLTimeoutException} after that. Idle and expired connections are closed by a background evictor.
+ * <p>
+ * If {@link PoolConfig#getStatementCacheSize()} is positive, each physical connection keeps a {@link StatementCache},
+ * so clients that prepare the same SQL over and over again reuse already prepared statements.
+ */
+public class PooledDataSource implements DataSource, AutoCloseable {
+    private final DataSource targetDataSource;
+    private final PoolConfig config;
+
+    private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Semaphore borrowPermits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsDestroyed = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public PooledDataSource(DataSource targetDataSource, PoolConfig config) {
+        this.targetDataSource = targetDataSource;
+        this.config = config;
+        this.borrowPermits = new Semaphore(config.getMaxPoolSize(), true);
+        this.evictor = createEvictor(config);
+    }
+
+    private ScheduledExecutorService createEvictor(PoolConfig config) {
+        long intervalMillis = config.getEvictionInterval().toMillis();
+        if (intervalMillis <= 0) {
+            return null;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pooled-data-source-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::evictIdleConnections, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkNotClosed();
+        long waitStart = System.nanoTime();
+        acquirePermit();
+        try {
+            PooledConnection pooledConnection = takeIdleOrCreateConnection();
+            borrowCount.incrementAndGet();
+            totalBorrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+            return pooledConnection.createHandle();
+        } catch (SQLException | RuntimeException e) {
+            borrowPermits.release();
+            throw e;
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!borrowPermits.tryAcquire(config.getBorrowTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLTimeoutException(String.format("Cannot get a connection within %d ms, pool size is %d",
+                        config.getBorrowTimeout().toMillis(), config.getMaxPoolSize()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private PooledConnection takeIdleOrCreateConnection() throws SQLException {
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            if (isExpired(pooledConnection) || isIdleTooLong(pooledConnection)) {
+                destroy(pooledConnection);
+            } else if (config.isValidateOnBorrow() && !isValid(pooledConnection)) {
+                validationFailures.incrementAndGet();
+                destroy(pooledConnection);
+            } else {
+                return pooledConnection;
+            }
+        }
+        return createPooledConnection();
+    }
+
+    private PooledConnection createPooledConnection() throws SQLException {
+        Connection physicalConnection = targetDataSource.getConnection();
+        totalConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        StatementCache statementCache = config.getStatementCacheSize() > 0
+                ? new StatementCache(physicalConnection, config.getStatementCacheSize(), statementCacheHits, statementCacheMisses)
+                : null;
+        return new PooledConnection(physicalConnection, statementCache);
+    }
+
+    private boolean isValid(PooledConnection pooledConnection) {
+        try {
+            return pooledConnection.physicalConnection.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooledConnection) {
+        return System.nanoTime() - pooledConnection.createdAt >= config.getMaxLifetime().toNanos();
+    }
+
+    private boolean isIdleTooLong(PooledConnection pooledConnection) {
+        return System.nanoTime() - pooledConnection.lastReturnedAt >= config.getIdleTimeout().toNanos();
+    }
+
+    private void returnConnection(PooledConnection pooledConnection) {
+        try {
+            if (closed || isExpired(pooledConnection) || !resetState(pooledConnection)) {
+                destroy(pooledConnection);
+            } else {
+                pooledConnection.lastReturnedAt = System.nanoTime();
+                idleConnections.offerFirst(pooledConnection);
+            }
+        } finally {
+            borrowPermits.release();
+        }
+    }
+
+    private boolean resetState(PooledConnection pooledConnection) {
+        Connection connection = pooledConnection.physicalConnection;
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooledConnection) {
+        totalConnections.decrementAndGet();
+        connectionsDestroyed.incrementAndGet();
+        if (pooledConnection.statementCache != null) {
+            pooledConnection.statementCache.close();
+        }
+        try {
+            pooledConnection.physicalConnection.close();
+        } catch (SQLException ignored) {
+            // the connection is dropped anyway
+        }
+    }
+
+    /**
+     * Closes idle connections that exceeded either {@link PoolConfig#getIdleTimeout()} or
+     * {@link PoolConfig#getMaxLifetime()}. It is called periodically by the background evictor, but can be also
+     * called directly.
+     */
+    public void evictIdleConnections() {
+        for (PooledConnection pooledConnection : idleConnections) {
+            if ((isExpired(pooledConnection) || isIdleTooLong(pooledConnection))
+                    && idleConnections.remove(pooledConnection)) {
+                destroy(pooledConnection);
+            }
+        }
+    }
+
+    /**
+     * Returns current state of the pool and its accumulated counters
+     *
+     * @return metrics snapshot
+     */
+    public PoolMetrics getMetrics() {
+        int total = totalConnections.get();
+        int idle = idleConnections.size();
+        return PoolMetrics.builder()
+                .totalConnections(total)
+                .idleConnections(idle)
+                .activeConnections(config.getMaxPoolSize() - borrowPermits.availablePermits())
+                .pendingThreads(borrowPermits.getQueueLength())
+                .connectionsCreated(connectionsCreated.get())
+                .connectionsDestroyed(connectionsDestroyed.get())
+                .borrowCount(borrowCount.get())
+                .borrowTimeouts(borrowTimeouts.get())
+                .validationFailures(validationFailures.get())
+                .totalBorrowWaitNanos(totalBorrowWaitNanos.get())
+                .statementCacheHits(statementCacheHits.get())
+                .statementCacheMisses(statementCacheMisses.get())
+                .build();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Closes all idle connections and stops the evictor. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            destroy(pooledConnection);
+        }
+    }
+
+    private void checkNotClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections are always opened with configured credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        targetDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        targetDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return targetDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return targetDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || targetDataSource.isWrapperFor(iface);
+    }
+
+    /**
+     * A physical connection that is owned by the pool
+     */
+    private class PooledConnection {
+        private final Connection physicalConnection;
+        private final StatementCache statementCache;
+        private final long createdAt = System.nanoTime();
+        private volatile long lastReturnedAt = createdAt;
+
+        private PooledConnection(Connection physicalConnection, StatementCache statementCache) {
+            this.physicalConnection = physicalConnection;
+            this.statementCache = statementCache;
+        }
+
+        private Connection createHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class[]{Connection.class}, new ConnectionHandle(this));
+        }
+    }
+
+    /**
+     * A logical connection given to a client. It delegates all calls to the physical connection until it's closed.
+     * Statements it creates return the logical connection from {@link Statement#getConnection()}, so the physical
+     * connection never leaks to a client.
+     */
+    private class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooledConnection;
+        // a handle can be closed and checked from different threads, and must return the connection only once
+        private final AtomicBoolean handleClosed = new AtomicBoolean();
+
+        private ConnectionHandle(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (handleClosed.compareAndSet(false, true)) {
+                        returnConnection(pooledConnection);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed.get();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooledConnection.physicalConnection;
+            }
+            if (handleClosed.get()) {
+                throw new SQLException("Connection is closed");
+            }
+            if (isCacheablePrepareStatement(method)) {
+                return pooledConnection.statementCache.prepare(method, args, (Connection) proxy);
+            }
+            Object result;
+            try {
+                result = method.invoke(pooledConnection.physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class[]{method.getReturnType()},
+                        new StatementWrapper((Statement) result, (Connection) proxy));
+            }
+            return result;
+        }
+
+        /**
+         * Only statements prepared by SQL and int options are cached, because arrays of key columns can't be compared
+         */
+        private boolean isCacheablePrepareStatement(Method method) {
+            if (pooledConnection.statementCache == null || !method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            return Arrays.stream(method.getParameterTypes()).skip(1).allMatch(int.class::equals);
+        }
+    }
+
+    /**
+     * A statement created by a {@link ConnectionHandle}, that returns the handle as its connection
+     */
+    private static class StatementWrapper implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connectionHandle;
+
+        private StatementWrapper(Statement statement, Connection connectionHandle) {
+            this.statement = statement;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ua.procamp.util;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link SqlStatementAssertions} provides assertions on statements recorded by {@link SqlStatementCounter} for
+ * the current thread. They throw {@link AssertionError} listing executed statements, so an unexpected N+1 select
+ * is easy to spot in a test report.
+ * <p>
+ * What is counted as a statement depends on the source. {@link StatementCountingDataSource} counts executions, and
+ * a JDBC batch is one execution. A Hibernate statement inspector is only called when a statement is prepared, so it
+ * counts prepares, and a prepared statement executed several times is counted once.
+ */
+public class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static void assertSelectCount(long expected) {
+        assertCount("select", expected, SqlStatistics::getSelectCount);
+    }
+
+    public static void assertInsertCount(long expected) {
+        assertCount("insert", expected, SqlStatistics::getInsertCount);
+    }
+
+    public static void assertUpdateCount(long expected) {
+        assertCount("update", expected, SqlStatistics::getUpdateCount);
+    }
+
+    public static void assertDeleteCount(long expected) {
+        assertCount("delete", expected, SqlStatistics::getDeleteCount);
+    }
+
+    public static void assertStatementCount(long expected) {
+        assertCount("", expected, SqlStatistics::getStatementCount);
+    }
+
+    /**
+     * Checks that no transaction executed more statements than given budget. Transactions are recorded only by
+     * {@link StatementCountingDataSource}
+     *
+     * @param maxStatements max number of statements per transaction
+     */
+    public static void assertMaxStatementsPerTransaction(long maxStatements) {
+        SqlStatistics statistics = SqlStatementCounter.current();
+        if (statistics.getMaxStatementsPerTransaction() > maxStatements) {
+            throw new AssertionError(String.format("Expected at most %d statements per transaction, but %d were executed:%s",
+                    maxStatements, statistics.getMaxStatementsPerTransaction(), formatStatements(statistics)));
+        }
+    }
+
+    /**
+     * Resets the counter, performs the action and checks it executed no more than given number of statements
+     *
+     * @param maxStatements statement budget of the action
+     * @param action        checked action
+     * @param <T>           action result type
+     * @return action result
+     */
+    public static <T> T assertWithinBudget(long maxStatements, Supplier<T> action) {
+        SqlStatementCounter.reset();
+        T result = action.get();
+        SqlStatistics statistics = SqlStatementCounter.current();
+        if (statistics.getStatementCount() > maxStatements) {
+            throw new AssertionError(String.format("Expected at most %d statements, but %d were executed:%s",
+                    maxStatements, statistics.getStatementCount(), formatStatements(statistics)));
+        }
+        return result;
+    }
+
+    private static void assertCount(String type, long expected, Function<SqlStatistics, Long> countFunction) {
+        SqlStatistics statistics = SqlStatementCounter.current();
+        long actual = countFunction.apply(statistics);
+        if (actual != expected) {
+            String statementName = type.isEmpty() ? "statements" : type + " statements";
+            throw new AssertionError(String.format("Expected %d %s, but %d were executed:%s",
+                    expected, statementName, actual, formatStatements(statistics)));
+        }
+    }
+
+    private static String formatStatements(SqlStatistics statistics) {
+        StringBuilder message = new StringBuilder();
+        statistics.getStatements().forEach(sql -> message.append("\n  ").append(sql));
+        if (statistics.getStatementCount() > statistics.getStatements().size()) {
+            message.append("\n  ...");
+        }
+        return message.toString();
+    }
+}
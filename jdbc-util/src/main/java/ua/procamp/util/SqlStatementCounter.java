@@ -0,0 +1,120 @@
+package ua.procamp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link SqlStatementCounter} keeps counts of executed SQL statements by type, their total execution time and number
+ * of statements per transaction. Counts are kept per thread, so tests running in parallel don't affect each other.
+ * <p>
+ * Statements are recorded by {@link StatementCountingDataSource}, or by a Hibernate statement inspector when
+ * a persistence unit manages connections itself. Only one of them should be used for the same connections, otherwise
+ * each statement is counted twice.
+ */
+public class SqlStatementCounter {
+    static final int MAX_RECORDED_STATEMENTS = 100;
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Resets all counts of the current thread
+     */
+    public static void reset() {
+        COUNTS.remove();
+    }
+
+    /**
+     * Returns statistics of statements executed by the current thread since the last {@link SqlStatementCounter#reset()}
+     */
+    public static SqlStatistics current() {
+        return COUNTS.get().toStatistics();
+    }
+
+    /**
+     * Records an executed statement
+     *
+     * @param sql          statement SQL
+     * @param elapsedNanos execution time, or 0 if it's unknown
+     */
+    public static void recordStatement(String sql, long elapsedNanos) {
+        COUNTS.get().recordStatement(sql, elapsedNanos);
+    }
+
+    /**
+     * Records a completed (committed or rolled back) transaction
+     *
+     * @param statementCount number of statements executed within the transaction
+     */
+    public static void recordTransaction(long statementCount) {
+        COUNTS.get().recordTransaction(statementCount);
+    }
+
+    private static class Counts {
+        private long selects;
+        private long inserts;
+        private long updates;
+        private long deletes;
+        private long others;
+        private long elapsedNanos;
+        private long transactions;
+        private long maxStatementsPerTransaction;
+        private final List<String> statements = new ArrayList<>();
+
+        private void recordStatement(String sql, long nanos) {
+            switch (statementType(sql)) {
+                case "select":
+                case "with":
+                    selects++;
+                    break;
+                case "insert":
+                case "merge":
+                    inserts++;
+                    break;
+                case "update":
+                    updates++;
+                    break;
+                case "delete":
+                    deletes++;
+                    break;
+                default:
+                    others++;
+            }
+            elapsedNanos += nanos;
+            if (statements.size() < MAX_RECORDED_STATEMENTS) {
+                statements.add(sql);
+            }
+        }
+
+        private static String statementType(String sql) {
+            String trimmedSql = sql.trim();
+            int end = 0;
+            while (end < trimmedSql.length() && Character.isLetter(trimmedSql.charAt(end))) {
+                end++;
+            }
+            return trimmedSql.substring(0, end).toLowerCase(Locale.ROOT);
+        }
+
+        private void recordTransaction(long statementCount) {
+            transactions++;
+            maxStatementsPerTransaction = Math.max(maxStatementsPerTransaction, statementCount);
+        }
+
+        private SqlStatistics toStatistics() {
+            return SqlStatistics.builder()
+                    .selectCount(selects)
+                    .insertCount(inserts)
+                    .updateCount(updates)
+                    .deleteCount(deletes)
+                    .otherCount(others)
+                    .totalElapsedNanos(elapsedNanos)
+                    .transactionCount(transactions)
+                    .maxStatementsPerTransaction(maxStatementsPerTransaction)
+                    .statements(List.copyOf(statements))
+                    .build();
+        }
+    }
+}
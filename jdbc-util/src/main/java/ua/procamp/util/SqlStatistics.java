@@ -0,0 +1,29 @@
+package ua.procamp.util;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * {@link SqlStatistics} is a snapshot of SQL statements recorded by {@link SqlStatementCounter} for the current thread
+ */
+@Getter
+@Builder
+@ToString
+public class SqlStatistics {
+    private final long selectCount;
+    private final long insertCount;
+    private final long updateCount;
+    private final long deleteCount;
+    private final long otherCount;
+    private final long totalElapsedNanos;
+    private final long transactionCount;
+    private final long maxStatementsPerTransaction;
+    private final List<String> statements;
+
+    public long getStatementCount() {
+        return selectCount + insertCount + updateCount + deleteCount + otherCount;
+    }
+}
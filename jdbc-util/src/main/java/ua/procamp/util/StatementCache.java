@@ -0,0 +1,255 @@
+package ua.procamp.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link StatementCache} is a size-bounded LRU cache of {@link PreparedStatement}s that belongs to a single physical
+ * connection. A cached statement is handed out wrapped into a proxy, whose {@link PreparedStatement#close()} clears
+ * parameters and returns it back to the cache, so the next call with the same SQL reuses already parsed statement.
+ * <p>
+ * The cache is transparent for callers: result sets left open are closed when a statement is given back, and fetch
+ * size, max rows, max field size, fetch direction and query timeout are reset to the values the statement was prepared
+ * with. A statement whose other settings were changed (e.g. escape processing or cursor name) is not reused.
+ * <p>
+ * When the cache is full, the least recently used statement is closed. If a statement with the same SQL is already
+ * in use (e.g. nested calls on the same connection), a new statement is prepared and closed as usual.
+ */
+class StatementCache {
+    private static final Set<String> RESETTABLE_SETTERS = Set.of("setFetchSize", "setMaxRows", "setLargeMaxRows",
+            "setMaxFieldSize", "setFetchDirection", "setQueryTimeout");
+    private static final Set<String> NON_RESETTABLE_SETTERS = Set.of("setEscapeProcessing", "setCursorName",
+            "setPoolable", "closeOnCompletion");
+
+    private final Connection physicalConnection;
+    private final Map<List<Object>, CachedStatement> statements;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    StatementCache(Connection physicalConnection, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.physicalConnection = physicalConnection;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedStatement> eldest) {
+                if (size() > maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a statement prepared by one of {@code Connection.prepareStatement} methods with given arguments.
+     *
+     * @param prepareMethod      {@code prepareStatement} method of {@link Connection}
+     * @param args               method arguments, the first one is SQL
+     * @param connectionHandle   logical connection that is returned by {@link PreparedStatement#getConnection()}
+     * @return cached or newly prepared statement
+     */
+    synchronized PreparedStatement prepare(Method prepareMethod, Object[] args, Connection connectionHandle)
+            throws SQLException {
+        List<Object> key = Arrays.asList(args);
+        CachedStatement cachedStatement = statements.get(key);
+        if (cachedStatement != null && !cachedStatement.inUse) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            PreparedStatement statement = invoke(prepareMethod, physicalConnection, args);
+            boolean alreadyInUse = cachedStatement != null;
+            try {
+                cachedStatement = new CachedStatement(key, statement);
+            } catch (SQLException | RuntimeException e) {
+                statement.close();
+                throw e;
+            }
+            if (alreadyInUse) {
+                // not cached, so it's closed for real when it's given back
+                cachedStatement.evicted = true;
+            } else {
+                statements.put(key, cachedStatement);
+            }
+        }
+        cachedStatement.inUse = true;
+        return cachedStatement.createHandle(connectionHandle);
+    }
+
+    synchronized void close() {
+        statements.values().forEach(CachedStatement::evict);
+        statements.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T invoke(Method method, Object target, Object[] args) throws SQLException {
+        try {
+            return (T) method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class CachedStatement {
+        private final List<Object> key;
+        private final PreparedStatement statement;
+        private final StatementSettings defaultSettings;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean settingsChanged;
+        private boolean reusable = true;
+
+        private CachedStatement(List<Object> key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.defaultSettings = new StatementSettings(statement);
+        }
+
+        private PreparedStatement createHandle(Connection connectionHandle) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class[]{PreparedStatement.class}, new StatementHandle(this, connectionHandle));
+        }
+
+        private void giveBack() throws SQLException {
+            synchronized (StatementCache.this) {
+                inUse = false;
+                if (!reusable && !evicted) {
+                    statements.remove(key, this);
+                    evicted = true;
+                }
+                if (evicted) {
+                    statement.close();
+                } else {
+                    statement.clearParameters();
+                    statement.clearBatch();
+                    if (settingsChanged) {
+                        defaultSettings.apply(statement);
+                        settingsChanged = false;
+                    }
+                }
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // the statement is dropped anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * Statement settings that can be changed by a borrower, and are restored when the statement is given back
+     */
+    private static class StatementSettings {
+        private final int fetchSize;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int fetchDirection;
+        private final int queryTimeout;
+
+        private StatementSettings(PreparedStatement statement) throws SQLException {
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        private void apply(PreparedStatement statement) throws SQLException {
+            // some drivers don't accept a fetch size greater than max rows, so max rows is restored first
+            statement.setMaxRows(maxRows);
+            statement.setFetchSize(fetchSize);
+            statement.setMaxFieldSize(maxFieldSize);
+            statement.setFetchDirection(fetchDirection);
+            statement.setQueryTimeout(queryTimeout);
+        }
+    }
+
+    private static class StatementHandle implements InvocationHandler {
+        private final CachedStatement cachedStatement;
+        private final Connection connectionHandle;
+        private final List<ResultSet> resultSets = new ArrayList<>();
+        private boolean handleClosed;
+
+        private StatementHandle(CachedStatement cachedStatement, Connection connectionHandle) {
+            this.cachedStatement = cachedStatement;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        try {
+                            closeResultSets();
+                        } finally {
+                            cachedStatement.giveBack();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed;
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+            }
+            if (handleClosed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (RESETTABLE_SETTERS.contains(method.getName())) {
+                cachedStatement.settingsChanged = true;
+            } else if (NON_RESETTABLE_SETTERS.contains(method.getName())) {
+                cachedStatement.reusable = false;
+            } else if (method.getName().startsWith("execute")) {
+                // executing a statement closes its current result sets
+                resultSets.clear();
+            }
+            Object result;
+            try {
+                result = method.invoke(cachedStatement.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                resultSets.add((ResultSet) result);
+            }
+            return result;
+        }
+
+        private void closeResultSets() throws SQLException {
+            for (ResultSet resultSet : resultSets) {
+                resultSet.close();
+            }
+            resultSets.clear();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ua.procamp.util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * {@link StatementCountingDataSource} wraps any {@link DataSource} and records every statement executed through its
+ * connections into {@link SqlStatementCounter}, together with its execution time. It also tracks commits and rollbacks,
+ * so the number of statements executed within each transaction is known. A statement executed in auto-commit mode
+ * is counted as a separate transaction.
+ * <p>
+ * A JDBC batch is counted as one statement, as it's sent to the database in one round trip.
+ */
+public class StatementCountingDataSource implements DataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final DataSource targetDataSource;
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        this.targetDataSource = targetDataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return createConnectionProxy(targetDataSource.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return createConnectionProxy(targetDataSource.getConnection(username, password));
+    }
+
+    private Connection createConnectionProxy(Connection connection) throws SQLException {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class[]{Connection.class}, new CountingConnection(connection));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        targetDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        targetDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return targetDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return targetDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || targetDataSource.isWrapperFor(iface);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps created statements and counts statements executed since the transaction start
+     */
+    private static class CountingConnection implements InvocationHandler {
+        private final Connection connection;
+        private boolean autoCommit;
+        private long transactionStatements;
+
+        private CountingConnection(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "createStatement":
+                    return createStatementProxy(Statement.class, invokeTarget(connection, method, args), null, proxy);
+                case "prepareStatement":
+                    return createStatementProxy(PreparedStatement.class, invokeTarget(connection, method, args),
+                            (String) args[0], proxy);
+                case "prepareCall":
+                    return createStatementProxy(CallableStatement.class, invokeTarget(connection, method, args),
+                            (String) args[0], proxy);
+                case "commit":
+                case "rollback":
+                    Object result = invokeTarget(connection, method, args);
+                    // rollback to a savepoint doesn't end the transaction
+                    if (args == null) {
+                        completeTransaction();
+                    }
+                    return result;
+                case "setAutoCommit":
+                    invokeTarget(connection, method, args);
+                    boolean newAutoCommit = (Boolean) args[0];
+                    // switching auto-commit on commits the current transaction
+                    if (newAutoCommit && !autoCommit) {
+                        completeTransaction();
+                    }
+                    autoCommit = newAutoCommit;
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StatementCounting" + connection;
+            }
+            return invokeTarget(connection, method, args);
+        }
+
+        private Object createStatementProxy(Class<? extends Statement> type, Object statement, String sql,
+                                            Object connectionProxy) {
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class[]{type},
+                    new CountingStatement(this, (Statement) statement, sql, connectionProxy));
+        }
+
+        private void statementExecuted(String sql, long elapsedNanos) {
+            SqlStatementCounter.recordStatement(sql, elapsedNanos);
+            if (autoCommit) {
+                SqlStatementCounter.recordTransaction(1);
+            } else {
+                transactionStatements++;
+            }
+        }
+
+        private void completeTransaction() {
+            if (transactionStatements > 0) {
+                SqlStatementCounter.recordTransaction(transactionStatements);
+                transactionStatements = 0;
+            }
+        }
+    }
+
+    /**
+     * Times executions of a statement. SQL is taken from the execute call arguments, or from the prepared statement
+     */
+    private static class CountingStatement implements InvocationHandler {
+        private final CountingConnection countingConnection;
+        private final Statement statement;
+        private final String preparedSql;
+        private final Object connectionProxy;
+        private String batchSql;
+
+        private CountingStatement(CountingConnection countingConnection, Statement statement, String preparedSql,
+                                  Object connectionProxy) {
+            this.countingConnection = countingConnection;
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if (methodName.equals("getConnection")) {
+                return connectionProxy;
+            }
+            if (methodName.equals("addBatch") && args != null && batchSql == null) {
+                batchSql = (String) args[0];
+            }
+            if (!EXECUTE_METHODS.contains(methodName)) {
+                return invokeTarget(statement, method, args);
+            }
+            String sql = executedSql(methodName, args);
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(statement, method, args);
+            } finally {
+                countingConnection.statementExecuted(sql, System.nanoTime() - start);
+            }
+        }
+
+        private String executedSql(String methodName, Object[] args) {
+            if (methodName.endsWith("Batch")) {
+                String sql = preparedSql != null ? preparedSql : batchSql;
+                batchSql = null;
+                return sql != null ? sql : "";
+            }
+            return args != null && args.length > 0 ? (String) args[0] : preparedSql;
+        }
+    }
+}
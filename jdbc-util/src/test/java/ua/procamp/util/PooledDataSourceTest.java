@@ -0,0 +1,248 @@
+package ua.procamp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PooledDataSourceTest {
+    private PooledDataSource pooledDataSource;
+
+    @BeforeEach
+    void setup() {
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxPoolSize(2)
+                .borrowTimeout(Duration.ofMillis(100))
+                .evictionInterval(Duration.ZERO)
+                .build();
+        pooledDataSource = JdbcUtil.createPooledDataSource(JdbcUtil.createDefaultInMemoryH2DataSource(), poolConfig);
+    }
+
+    @AfterEach
+    void destroy() {
+        pooledDataSource.close();
+    }
+
+    @Test
+    void testPhysicalConnectionIsReused() throws SQLException {
+        String firstSession = currentSessionId();
+        String secondSession = currentSessionId();
+
+        assertThat(secondSession, equalTo(firstSession));
+        assertThat(pooledDataSource.getMetrics().getConnectionsCreated(), equalTo(1L));
+        assertThat(pooledDataSource.getMetrics().getBorrowCount(), equalTo(2L));
+    }
+
+    private String currentSessionId() throws SQLException {
+        try (Connection connection = pooledDataSource.getConnection()) {
+            var resultSet = connection.createStatement().executeQuery("SELECT SESSION_ID()");
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    @Test
+    void testBorrowTimesOutWhenPoolIsExhausted() throws SQLException {
+        try (Connection first = pooledDataSource.getConnection();
+             Connection second = pooledDataSource.getConnection()) {
+            assertThrows(SQLTimeoutException.class, pooledDataSource::getConnection);
+            assertThat(pooledDataSource.getMetrics().getActiveConnections(), equalTo(2));
+        }
+
+        assertThat(pooledDataSource.getMetrics().getBorrowTimeouts(), equalTo(1L));
+        assertThat(pooledDataSource.getMetrics().getIdleConnections(), equalTo(2));
+        assertThat(pooledDataSource.getMetrics().getActiveConnections(), equalTo(0));
+    }
+
+    @Test
+    void testClosedHandleCannotBeUsed() throws SQLException {
+        Connection connection = pooledDataSource.getConnection();
+        connection.close();
+
+        assertThat(connection.isClosed(), is(true));
+        assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    @Test
+    void testStatementsReturnConnectionHandle() throws SQLException {
+        try (Connection connection = pooledDataSource.getConnection()) {
+            assertThat(connection.createStatement().getConnection(), sameInstance(connection));
+            assertThat(connection.prepareStatement("SELECT 1").getConnection(), sameInstance(connection));
+            assertThat(connection.prepareCall("SELECT 1").getConnection(), sameInstance(connection));
+        }
+    }
+
+    @Test
+    void testClosingStatementConnectionReturnsItToPool() throws SQLException {
+        Connection connection = pooledDataSource.getConnection();
+        Statement statement = connection.createStatement();
+
+        statement.getConnection().close();
+        connection.close();
+
+        assertThat(connection.isClosed(), is(true));
+        assertThat(pooledDataSource.getMetrics().getIdleConnections(), equalTo(1));
+        assertThat(pooledDataSource.getMetrics().getConnectionsDestroyed(), equalTo(0L));
+        assertThat(currentSessionId(), notNullValue());
+    }
+
+    @Test
+    void testUncommittedTransactionIsRolledBackOnReturn() throws SQLException {
+        try (Connection connection = pooledDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+        }
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            assertThat(connection.getAutoCommit(), is(true));
+        }
+    }
+
+    @Test
+    void testPreparedStatementIsTakenFromCache() throws SQLException {
+        recreatePool(PoolConfig.builder().statementCacheSize(2).evictionInterval(Duration.ZERO).build());
+
+        selectOne("SELECT 1");
+        selectOne("SELECT 1");
+        selectOne("SELECT 1");
+
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+        assertThat(metrics.getStatementCacheMisses(), equalTo(1L));
+        assertThat(metrics.getStatementCacheHits(), equalTo(2L));
+    }
+
+    @Test
+    void testLeastRecentlyUsedStatementIsEvicted() throws SQLException {
+        recreatePool(PoolConfig.builder().statementCacheSize(2).evictionInterval(Duration.ZERO).build());
+
+        selectOne("SELECT 1");
+        selectOne("SELECT 2");
+        selectOne("SELECT 1");
+        selectOne("SELECT 3");
+        selectOne("SELECT 1");
+        selectOne("SELECT 2");
+
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+        assertThat(metrics.getStatementCacheHits(), equalTo(2L));
+        assertThat(metrics.getStatementCacheMisses(), equalTo(4L));
+    }
+
+    @Test
+    void testStatementInUseIsNotShared() throws SQLException {
+        recreatePool(PoolConfig.builder().statementCacheSize(2).evictionInterval(Duration.ZERO).build());
+
+        try (Connection connection = pooledDataSource.getConnection();
+             PreparedStatement first = connection.prepareStatement("SELECT ?");
+             PreparedStatement second = connection.prepareStatement("SELECT ?")) {
+            first.setInt(1, 1);
+            second.setInt(1, 2);
+
+            assertThat(queryInt(first), equalTo(1));
+            assertThat(queryInt(second), equalTo(2));
+            assertThat(second.getConnection(), sameInstance(connection));
+        }
+        assertThat(pooledDataSource.getMetrics().getStatementCacheMisses(), equalTo(2L));
+    }
+
+    @Test
+    void testCachedStatementSettingsAreResetOnGiveBack() throws SQLException {
+        recreatePool(PoolConfig.builder().statementCacheSize(2).evictionInterval(Duration.ZERO).build());
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            int defaultFetchSize;
+            int defaultMaxRows;
+            int defaultQueryTimeout;
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                defaultFetchSize = statement.getFetchSize();
+                defaultMaxRows = statement.getMaxRows();
+                defaultQueryTimeout = statement.getQueryTimeout();
+                statement.setFetchSize(defaultFetchSize + 10);
+                statement.setMaxRows(defaultMaxRows + 1);
+                statement.setQueryTimeout(defaultQueryTimeout + 5);
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                assertThat(statement.getFetchSize(), equalTo(defaultFetchSize));
+                assertThat(statement.getMaxRows(), equalTo(defaultMaxRows));
+                assertThat(statement.getQueryTimeout(), equalTo(defaultQueryTimeout));
+            }
+        }
+        assertThat(pooledDataSource.getMetrics().getStatementCacheHits(), equalTo(1L));
+    }
+
+    @Test
+    void testOpenResultSetIsClosedOnGiveBack() throws SQLException {
+        recreatePool(PoolConfig.builder().statementCacheSize(2).evictionInterval(Duration.ZERO).build());
+
+        ResultSet resultSet;
+        try (Connection connection = pooledDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+            resultSet = statement.executeQuery();
+        }
+
+        assertThat(resultSet.isClosed(), is(true));
+    }
+
+    @Test
+    void testStatementWithChangedEscapeProcessingIsNotReused() throws SQLException {
+        recreatePool(PoolConfig.builder().statementCacheSize(2).evictionInterval(Duration.ZERO).build());
+
+        try (Connection connection = pooledDataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.setEscapeProcessing(false);
+            }
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                assertThat(queryInt(statement), equalTo(1));
+            }
+        }
+
+        assertThat(pooledDataSource.getMetrics().getStatementCacheHits(), equalTo(0L));
+        assertThat(pooledDataSource.getMetrics().getStatementCacheMisses(), equalTo(2L));
+    }
+
+    private void selectOne(String sql) throws SQLException {
+        try (Connection connection = pooledDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            queryInt(statement);
+        }
+    }
+
+    private int queryInt(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void recreatePool(PoolConfig poolConfig) {
+        pooledDataSource.close();
+        pooledDataSource = JdbcUtil.createPooledDataSource(JdbcUtil.createDefaultInMemoryH2DataSource(), poolConfig);
+    }
+
+    @Test
+    void testExpiredConnectionsAreEvicted() throws SQLException, InterruptedException {
+        recreatePool(PoolConfig.builder()
+                .idleTimeout(Duration.ofMillis(10))
+                .evictionInterval(Duration.ZERO)
+                .build());
+        pooledDataSource.getConnection().close();
+
+        Thread.sleep(20);
+        pooledDataSource.evictIdleConnections();
+
+        PoolMetrics metrics = pooledDataSource.getMetrics();
+        assertThat(metrics.getIdleConnections(), equalTo(0));
+        assertThat(metrics.getTotalConnections(), equalTo(0));
+        assertThat(metrics.getConnectionsDestroyed(), equalTo(1L));
+    }
+}
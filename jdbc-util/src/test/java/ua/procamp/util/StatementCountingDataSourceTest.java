@@ -0,0 +1,120 @@
+package ua.procamp.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ua.procamp.util.SqlStatementAssertions.*;
+
+public class StatementCountingDataSourceTest {
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void init() throws SQLException {
+        dataSource = JdbcUtil.createStatementCountingDataSource(JdbcUtil.createDefaultInMemoryH2DataSource());
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS counted_item(id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        }
+    }
+
+    @BeforeEach
+    void setup() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("DELETE FROM counted_item");
+        }
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void testStatementsAreCountedByType() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO counted_item VALUES (?, ?)");
+            insertStatement.setLong(1, 1L);
+            insertStatement.setString(2, "first");
+            insertStatement.executeUpdate();
+            connection.createStatement().executeUpdate("UPDATE counted_item SET name = 'updated'");
+            ResultSet resultSet = connection.prepareStatement("SELECT * FROM counted_item").executeQuery();
+            assertThat(resultSet.next(), is(true));
+        }
+
+        assertInsertCount(1);
+        assertUpdateCount(1);
+        assertSelectCount(1);
+        assertDeleteCount(0);
+        assertStatementCount(3);
+        assertThat(SqlStatementCounter.current().getTotalElapsedNanos(), greaterThan(0L));
+    }
+
+    @Test
+    void testBatchIsCountedAsOneStatement() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO counted_item VALUES (?, ?)");
+            for (long id = 1; id <= 10; id++) {
+                insertStatement.setLong(1, id);
+                insertStatement.setString(2, "item" + id);
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+        }
+
+        assertInsertCount(1);
+    }
+
+    @Test
+    void testStatementsPerTransactionAreCounted() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            Statement statement = connection.createStatement();
+            statement.executeUpdate("INSERT INTO counted_item VALUES (1, 'first')");
+            statement.executeUpdate("INSERT INTO counted_item VALUES (2, 'second')");
+            statement.executeUpdate("INSERT INTO counted_item VALUES (3, 'third')");
+            connection.commit();
+            statement.executeQuery("SELECT * FROM counted_item");
+            connection.rollback();
+        }
+
+        SqlStatistics statistics = SqlStatementCounter.current();
+        assertThat(statistics.getTransactionCount(), equalTo(2L));
+        assertThat(statistics.getMaxStatementsPerTransaction(), equalTo(3L));
+        assertMaxStatementsPerTransaction(3);
+        assertThrows(AssertionError.class, () -> assertMaxStatementsPerTransaction(2));
+    }
+
+    @Test
+    void testExceededBudgetFailsWithExecutedStatements() {
+        AssertionError error = assertThrows(AssertionError.class, () -> assertWithinBudget(1, this::selectEachItem));
+
+        assertThat(error.getMessage(), containsString("Expected at most 1 statements, but 3 were executed"));
+        assertThat(error.getMessage(), containsString("SELECT name FROM counted_item WHERE id = ?"));
+    }
+
+    @Test
+    void testBudgetReturnsActionResult() {
+        Integer selected = assertWithinBudget(3, this::selectEachItem);
+
+        assertThat(selected, equalTo(3));
+    }
+
+    private int selectEachItem() {
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement selectStatement = connection.prepareStatement("SELECT name FROM counted_item WHERE id = ?");
+            for (long id = 1; id <= 3; id++) {
+                selectStatement.setLong(1, id);
+                selectStatement.executeQuery();
+            }
+            return 3;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
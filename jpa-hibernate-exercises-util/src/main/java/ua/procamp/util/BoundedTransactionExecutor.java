@@ -0,0 +1,71 @@
+package ua.procamp.util;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * {@link BoundedTransactionExecutor} runs transactions asynchronously, so that no more than a given number of them are
+ * performed at the same time. The limit should match the size of the connection pool, so tasks wait for a permit
+ * instead of waiting for a connection inside the pool.
+ * <p>
+ * When the code runs on a JDK with virtual threads, each task gets its own virtual thread, and waiting for a permit
+ * doesn't block any platform thread. Otherwise, a fixed pool of daemon platform threads of the same size is used.
+ */
+class BoundedTransactionExecutor {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    BoundedTransactionExecutor(int maxConcurrentTransactions) {
+        if (maxConcurrentTransactions < 1) {
+            throw new IllegalArgumentException("Max concurrent transactions should be positive");
+        }
+        this.permits = new Semaphore(maxConcurrentTransactions, true);
+        this.executor = createVirtualThreadExecutor()
+                .orElseGet(() -> createPlatformThreadExecutor(maxConcurrentTransactions));
+    }
+
+    private static Optional<ExecutorService> createVirtualThreadExecutor() {
+        try {
+            // looked up reflectively, because the code is compiled for JDK versions without virtual threads
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static ExecutorService createPlatformThreadExecutor(int threadCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "async-tx-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> transaction) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return transaction.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,36 @@
+package ua.procamp.util;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * {@link ClasspathJCacheRegionFactory} is a JCache second-level cache region factory that also accepts cache
+ * configuration from the classpath, e.g. {@code hibernate.javax.cache.uri = classpath:account-ehcache.xml}.
+ * The default factory requires an absolute URI, which can't be specified in persistence.xml of a module.
+ */
+public class ClasspathJCacheRegionFactory extends JCacheRegionFactory {
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    @Override
+    protected URI getUri(Map properties) {
+        Object uri = properties.get("hibernate.javax.cache.uri");
+        if (uri == null || !uri.toString().startsWith(CLASSPATH_PREFIX)) {
+            return super.getUri(properties);
+        }
+        String resourceName = uri.toString().substring(CLASSPATH_PREFIX.length());
+        URL resource = Thread.currentThread().getContextClassLoader().getResource(resourceName);
+        if (resource == null) {
+            throw new CacheException(String.format("Cache configuration %s is not found", uri));
+        }
+        try {
+            return resource.toURI();
+        } catch (URISyntaxException e) {
+            throw new CacheException(String.format("Couldn't create URI from %s", uri), e);
+        }
+    }
+}
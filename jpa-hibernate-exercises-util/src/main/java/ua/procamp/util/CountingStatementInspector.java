@@ -0,0 +1,23 @@
+package ua.procamp.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link CountingStatementInspector} records every SQL statement prepared by Hibernate into
+ * {@link SqlStatementCounter}, so mapping tests can check how many queries were executed using
+ * {@link SqlStatementAssertions}. Tests enable it by overriding the {@code hibernate.session_factory.statement_inspector}
+ * property when they create an entity manager factory, persistence units don't declare it.
+ * <p>
+ * Hibernate calls an inspector when a statement is prepared, not when it's executed. So a JDBC batch of inserts is
+ * counted once, and statements executed directly through a JDBC connection are not counted at all. Hibernate also
+ * doesn't report execution time and transaction boundaries to an inspector, use {@link StatementCountingDataSource}
+ * when they are needed.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.recordStatement(sql, 0);
+        return sql;
+    }
+}
@@ -2,14 +2,40 @@ package ua.procamp.util;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class EntityManagerUtil {
+    private static final String POOL_SIZE_PROPERTY = "hibernate.connection.pool_size";
+    private static final int DEFAULT_POOL_SIZE = 20;
+
     private EntityManagerFactory entityManagerFactory;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong giveUps = new AtomicLong();
+    private final int maxConcurrentTransactions;
+    private volatile BoundedTransactionExecutor asyncExecutor;
 
     public EntityManagerUtil(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, resolvePoolSize(entityManagerFactory));
+    }
+
+    /**
+     * Creates {@link EntityManagerUtil} that performs no more than a given number of async transactions at the same
+     * time. See {@link EntityManagerUtil#performReturningWithinTxAsync(Function)}
+     *
+     * @param entityManagerFactory      entity manager factory
+     * @param maxConcurrentTransactions max number of concurrent async transactions, usually a connection pool size
+     */
+    public EntityManagerUtil(EntityManagerFactory entityManagerFactory, int maxConcurrentTransactions) {
         this.entityManagerFactory = entityManagerFactory;
+        this.maxConcurrentTransactions = maxConcurrentTransactions;
+    }
+
+    private static int resolvePoolSize(EntityManagerFactory entityManagerFactory) {
+        Object poolSize = entityManagerFactory.getProperties().get(POOL_SIZE_PROPERTY);
+        return poolSize != null ? Integer.parseInt(poolSize.toString()) : DEFAULT_POOL_SIZE;
     }
 
     public void performWithinTx(Consumer<EntityManager> entityManagerConsumer) {
@@ -40,4 +66,122 @@ public class EntityManagerUtil {
             entityManager.close();
         }
     }
+
+    /**
+     * Performs the consumer within transaction like {@link EntityManagerUtil#performWithinTx(Consumer)}, but when
+     * the transaction fails with an error that {@link RetryPolicy} considers retryable, it is performed again in
+     * a new transaction using a new {@link EntityManager}. Therefore the consumer should not depend on state changed
+     * by previous attempts.
+     *
+     * @param entityManagerConsumer transaction logic
+     * @param retryPolicy           max attempts, backoff and classification of retryable errors
+     */
+    public void performWithinTx(Consumer<EntityManager> entityManagerConsumer, RetryPolicy retryPolicy) {
+        performReturningWithinTx(entityManager -> {
+            entityManagerConsumer.accept(entityManager);
+            return null;
+        }, retryPolicy);
+    }
+
+    /**
+     * Performs the function within transaction retrying it according to given {@link RetryPolicy}. When all attempts
+     * fail or the error is not retryable, the last exception is rethrown.
+     *
+     * @param entityManagerFunction transaction logic
+     * @param retryPolicy           max attempts, backoff and classification of retryable errors
+     * @param <T>                   result type
+     * @return function result
+     */
+    public <T> T performReturningWithinTx(Function<EntityManager, T> entityManagerFunction, RetryPolicy retryPolicy) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return performReturningWithinTx(entityManagerFunction);
+            } catch (RuntimeException e) {
+                if (!retryPolicy.isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= retryPolicy.getMaxAttempts()) {
+                    giveUps.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                backOff(retryPolicy.backoffMillis(attempt), e);
+            }
+        }
+    }
+
+    private void backOff(long millis, RuntimeException failure) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.addSuppressed(e);
+            throw failure;
+        }
+    }
+
+    /**
+     * Performs the consumer within transaction asynchronously. See
+     * {@link EntityManagerUtil#performReturningWithinTxAsync(Function)}
+     *
+     * @param entityManagerConsumer transaction logic
+     * @return future that is completed when the transaction is committed, or completed exceptionally when it fails
+     */
+    public CompletableFuture<Void> performWithinTxAsync(Consumer<EntityManager> entityManagerConsumer) {
+        return getAsyncExecutor().submit(() -> {
+            performWithinTx(entityManagerConsumer);
+            return null;
+        });
+    }
+
+    /**
+     * Performs the function within transaction on a separate thread, so the caller is not blocked. No more than
+     * the connection pool size of transactions are performed at the same time, others wait for their turn. Virtual
+     * threads are used on JDK versions that support them, otherwise transactions are run on a fixed thread pool.
+     *
+     * @param entityManagerFunction transaction logic
+     * @param <T>                   result type
+     * @return future of the function result, completed exceptionally when the transaction fails
+     */
+    public <T> CompletableFuture<T> performReturningWithinTxAsync(Function<EntityManager, T> entityManagerFunction) {
+        return getAsyncExecutor().submit(() -> performReturningWithinTx(entityManagerFunction));
+    }
+
+    private BoundedTransactionExecutor getAsyncExecutor() {
+        BoundedTransactionExecutor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = new BoundedTransactionExecutor(maxConcurrentTransactions);
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Stops threads used for async transactions. Already submitted transactions are still performed
+     */
+    public synchronized void shutdownAsync() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+    }
+
+    /**
+     * Returns a number of transactions that were performed again after a retryable failure
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Returns a number of transactions that failed with a retryable error after all attempts
+     */
+    public long getGiveUpCount() {
+        return giveUps.get();
+    }
 }
@@ -0,0 +1,54 @@
+package ua.procamp.util;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * {@link RetryPolicy} describes how many times a failed transaction is retried and how long to wait between attempts.
+ * The delay grows exponentially starting from {@link RetryPolicy#initialBackoff} and is capped by
+ * {@link RetryPolicy#maxBackoff}. A random delay from zero to the computed one is used (so called "full jitter"), so
+ * transactions that failed on the same conflict don't retry at the same time.
+ * <p>
+ * Only failures accepted by {@link RetryPolicy#retryableClassifier} are retried, by default these are serialization
+ * failures and deadlocks. See {@link SqlStateRetryClassifier}.
+ */
+@Getter
+@Builder
+@ToString
+public class RetryPolicy {
+    @Builder.Default
+    private int maxAttempts = 3;
+    @Builder.Default
+    private Duration initialBackoff = Duration.ofMillis(50);
+    @Builder.Default
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    @Builder.Default
+    private double multiplier = 2.0;
+    @Builder.Default
+    private Predicate<Throwable> retryableClassifier = SqlStateRetryClassifier.transientFailures();
+
+    public static RetryPolicy defaultPolicy() {
+        return RetryPolicy.builder().build();
+    }
+
+    public boolean isRetryable(Throwable e) {
+        return retryableClassifier.test(e);
+    }
+
+    /**
+     * Returns a random delay before the next attempt
+     *
+     * @param attempt number of the failed attempt starting from 1
+     * @return delay in milliseconds
+     */
+    public long backoffMillis(int attempt) {
+        double exponentialMillis = initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1);
+        long boundMillis = (long) Math.min(exponentialMillis, maxBackoff.toMillis());
+        return boundMillis > 0 ? ThreadLocalRandom.current().nextLong(boundMillis + 1) : 0;
+    }
+}
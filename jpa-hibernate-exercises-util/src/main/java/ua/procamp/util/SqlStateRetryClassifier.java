@@ -0,0 +1,46 @@
+package ua.procamp.util;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * {@link SqlStateRetryClassifier} considers a failure retryable when an {@link SQLException} with one of given SQL
+ * states is found in its cause chain. It's used by {@link RetryPolicy} to decide whether a transaction is retried.
+ */
+public class SqlStateRetryClassifier implements Predicate<Throwable> {
+    public static final String SERIALIZATION_FAILURE = "40001";
+    public static final String DEADLOCK_DETECTED = "40P01";
+
+    private final Set<String> retryableSqlStates;
+
+    public SqlStateRetryClassifier(Set<String> retryableSqlStates) {
+        this.retryableSqlStates = Set.copyOf(retryableSqlStates);
+    }
+
+    /**
+     * Returns a classifier of serialization failures and deadlocks, that usually succeed when retried
+     */
+    public static SqlStateRetryClassifier transientFailures() {
+        return new SqlStateRetryClassifier(Set.of(SERIALIZATION_FAILURE, DEADLOCK_DETECTED));
+    }
+
+    @Override
+    public boolean test(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && isRetryable((SQLException) cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRetryable(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            if (retryableSqlStates.contains(next.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
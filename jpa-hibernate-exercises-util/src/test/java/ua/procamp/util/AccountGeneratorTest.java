@@ -0,0 +1,82 @@
+package ua.procamp.util;
+
+import org.junit.jupiter.api.Test;
+import ua.procamp.model.Account;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AccountGeneratorTest {
+
+    @Test
+    void testGeneratesRequestedNumberOfAccounts() {
+        List<Account> accounts = new AccountGenerator().generateAccountListInParallel(1_000);
+
+        assertThat(accounts, hasSize(1_000));
+        assertThat(accounts, everyItem(hasProperty("email", notNullValue())));
+        assertThat(accounts, everyItem(hasProperty("balance", notNullValue())));
+    }
+
+    @Test
+    void testSameSeedGeneratesSamePeople() {
+        List<String> firstEmails = emails(new AccountGenerator(42).generateAccountList(100));
+        List<String> secondEmails = emails(new AccountGenerator(42).generateAccountList(100));
+
+        assertThat(secondEmails, equalTo(firstEmails));
+    }
+
+    @Test
+    void testSeededDatasetDoesNotDependOnParallelism() {
+        List<String> sequentialDataset = dataset(new AccountGenerator(42).generateAccountList(10_000));
+        List<String> parallelDataset = dataset(new AccountGenerator(42).generateAccountListInParallel(10_000));
+
+        assertThat(parallelDataset, equalTo(sequentialDataset));
+    }
+
+    @Test
+    void testShardsFormWholeDataset() {
+        AccountGenerator accountGenerator = new AccountGenerator(42);
+        List<String> wholeDataset = dataset(accountGenerator.stream(0, 1_001).collect(toList()));
+
+        List<String> shardedDataset = IntStream.range(0, 4).parallel()
+                .mapToObj(shard -> accountGenerator.shard(1_001, shard, 4).collect(toList()))
+                .flatMap(List::stream)
+                .map(Account::toString)
+                .collect(toList());
+
+        assertThat(shardedDataset, equalTo(wholeDataset));
+    }
+
+    @Test
+    void testEmailsAreUnique() {
+        long uniqueEmails = new AccountGenerator().stream(100_000).parallel()
+                .map(Account::getEmail)
+                .distinct()
+                .count();
+
+        assertThat(uniqueEmails, equalTo(100_000L));
+    }
+
+    @Test
+    void testSpliteratorIsSizedAndSplittable() {
+        Spliterator<Account> spliterator = new AccountGenerator().spliterator(10);
+
+        Spliterator<Account> prefix = spliterator.trySplit();
+
+        assertThat(prefix.estimateSize() + spliterator.estimateSize(), equalTo(10L));
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), is(true));
+    }
+
+    private List<String> dataset(List<Account> accounts) {
+        return accounts.stream().map(Account::toString).collect(toList());
+    }
+
+    private List<String> emails(List<Account> accounts) {
+        return accounts.stream().map(Account::getEmail).collect(toList());
+    }
+}
@@ -0,0 +1,149 @@
+package ua.procamp.util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.procamp.model.Account;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityManagerUtilTest {
+    private static EntityManagerFactory entityManagerFactory;
+    private EntityManagerUtil emUtil;
+    private RetryPolicy retryPolicy = RetryPolicy.builder()
+            .maxAttempts(3)
+            .initialBackoff(Duration.ofMillis(1))
+            .build();
+
+    @BeforeAll
+    static void init() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("AccountH2");
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void setup() {
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+    }
+
+    @Test
+    void testTransientFailureIsRetried() {
+        Account account = TestDataGenerator.generateAccount();
+        AtomicInteger attempts = new AtomicInteger();
+
+        emUtil.performWithinTx(entityManager -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw transientFailure(SqlStateRetryClassifier.SERIALIZATION_FAILURE);
+            }
+            entityManager.persist(account);
+        }, retryPolicy);
+
+        assertThat(account.getId(), notNullValue());
+        assertThat(attempts.get(), equalTo(3));
+        assertThat(emUtil.getRetryCount(), equalTo(2L));
+        assertThat(emUtil.getGiveUpCount(), equalTo(0L));
+    }
+
+    @Test
+    void testRetryingGivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(PersistenceException.class, () -> emUtil.performReturningWithinTx(entityManager -> {
+            attempts.incrementAndGet();
+            throw transientFailure(SqlStateRetryClassifier.DEADLOCK_DETECTED);
+        }, retryPolicy));
+
+        assertThat(attempts.get(), equalTo(3));
+        assertThat(emUtil.getRetryCount(), equalTo(2L));
+        assertThat(emUtil.getGiveUpCount(), equalTo(1L));
+    }
+
+    @Test
+    void testNotRetryableFailureIsRethrownImmediately() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(PersistenceException.class, () -> emUtil.performWithinTx(entityManager -> {
+            attempts.incrementAndGet();
+            throw transientFailure("23505");
+        }, retryPolicy));
+
+        assertThat(attempts.get(), equalTo(1));
+        assertThat(emUtil.getRetryCount(), equalTo(0L));
+        assertThat(emUtil.getGiveUpCount(), equalTo(0L));
+    }
+
+    @Test
+    void testBackoffIsBoundedByMaxBackoff() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(300))
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoffMillis(1), both(greaterThanOrEqualTo(0L)).and(lessThanOrEqualTo(100L)));
+            assertThat(policy.backoffMillis(10), lessThanOrEqualTo(300L));
+        }
+    }
+
+    @Test
+    void testAsyncTransactionsAreBoundedByMaxConcurrency() {
+        EntityManagerUtil boundedEmUtil = new EntityManagerUtil(entityManagerFactory, 2);
+        List<Account> accounts = TestDataGenerator.generateAccountList(20);
+        accounts.forEach(account -> emUtil.performWithinTx(entityManager -> entityManager.persist(account)));
+        AtomicInteger concurrentTransactions = new AtomicInteger();
+        AtomicInteger maxConcurrentTransactions = new AtomicInteger();
+
+        try {
+            List<CompletableFuture<Account>> futures = accounts.stream()
+                    .map(account -> boundedEmUtil.performReturningWithinTxAsync(entityManager -> {
+                        int concurrent = concurrentTransactions.incrementAndGet();
+                        maxConcurrentTransactions.accumulateAndGet(concurrent, Math::max);
+                        try {
+                            return entityManager.find(Account.class, account.getId());
+                        } finally {
+                            concurrentTransactions.decrementAndGet();
+                        }
+                    }))
+                    .collect(toList());
+            List<Account> foundAccounts = futures.stream().map(CompletableFuture::join).collect(toList());
+
+            assertThat(foundAccounts, equalTo(accounts));
+            assertThat(maxConcurrentTransactions.get(), lessThanOrEqualTo(2));
+        } finally {
+            boundedEmUtil.shutdownAsync();
+        }
+    }
+
+    @Test
+    void testAsyncTransactionFailureCompletesFutureExceptionally() {
+        CompletableFuture<Void> future = emUtil.performWithinTxAsync(entityManager -> {
+            throw new IllegalStateException("Transaction failure");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        emUtil.shutdownAsync();
+    }
+
+    private PersistenceException transientFailure(String sqlState) {
+        return new PersistenceException(new SQLException("Could not serialize access", sqlState));
+    }
+}
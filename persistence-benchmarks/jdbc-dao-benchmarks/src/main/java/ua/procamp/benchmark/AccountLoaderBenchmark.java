@@ -0,0 +1,84 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ua.procamp.data.AccountGenerator;
+import ua.procamp.data.AccountLoader;
+import ua.procamp.model.Account;
+import ua.procamp.util.JdbcUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading generated accounts with {@link AccountLoader} and with a separate {@code INSERT} per account.
+ * Every invocation starts with an empty {@code account} table.
+ * <p>
+ * By default it uses in-memory H2, pass {@code -p database=postgres} to run it against
+ * {@link JdbcUtil#createDefaultPostgresDataSource()} and benchmark COPY protocol.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountLoaderBenchmark {
+    private static final String INSERT_SQL = "INSERT INTO account(first_name, last_name, email, birthday, gender, " +
+            "creation_time, balance) VALUES (?,?,?,?,?,?,?)";
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"100000"})
+    private int accountsCount;
+
+    private DataSource dataSource;
+
+    @Setup
+    public void setup() {
+        dataSource = database.equals("postgres") ? JdbcUtil.createDefaultPostgresDataSource()
+                : JdbcUtil.createInMemoryH2DataSource("jdbc:h2:mem:account_loader_benchmark;DB_CLOSE_DELAY=-1",
+                "sa", "");
+    }
+
+    @Setup(Level.Invocation)
+    public void recreateTable() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS account");
+            statement.execute("CREATE TABLE account(id SERIAL PRIMARY KEY, first_name VARCHAR(255) NOT NULL, " +
+                    "last_name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL UNIQUE, birthday DATE NOT NULL, " +
+                    "gender VARCHAR(255) NOT NULL, creation_time TIMESTAMP NOT NULL, balance DECIMAL(19, 4))");
+        }
+    }
+
+    @Benchmark
+    public long load() throws SQLException {
+        return new AccountLoader(dataSource).load(new AccountGenerator(42).stream(accountsCount));
+    }
+
+    @Benchmark
+    public void insertPerRow() throws SQLException {
+        Iterator<Account> accounts = new AccountGenerator(42).stream(accountsCount).iterator();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insertStatement = connection.prepareStatement(INSERT_SQL)) {
+            while (accounts.hasNext()) {
+                Account account = accounts.next();
+                insertStatement.setString(1, account.getFirstName());
+                insertStatement.setString(2, account.getLastName());
+                insertStatement.setString(3, account.getEmail());
+                insertStatement.setDate(4, Date.valueOf(account.getBirthday()));
+                insertStatement.setString(5, account.getGender().name());
+                insertStatement.setTimestamp(6, Timestamp.valueOf(account.getCreationTime()));
+                insertStatement.setBigDecimal(7, account.getBalance());
+                insertStatement.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ua.procamp.dao.Page;
+import ua.procamp.dao.ProductDao;
+import ua.procamp.dao.ProductDaoImpl;
+import ua.procamp.model.Product;
+import ua.procamp.util.FileReader;
+import ua.procamp.util.JdbcUtil;
+import ua.procamp.util.PoolConfig;
+import ua.procamp.util.PooledDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures throughput and latency of {@link ProductDao} hot paths against in-memory H2 database created by
+ * {@link JdbcUtil#createDefaultInMemoryH2DataSource()} and wrapped into a connection pool with a connection for
+ * every benchmark thread.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductDaoBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "100000"})
+    private int datasetSize;
+
+    private PooledDataSource dataSource;
+    private ProductDao productDao;
+    private List<Long> ids;
+
+    @Setup
+    public void setup(BenchmarkParams params) throws SQLException {
+        dataSource = JdbcUtil.createPooledDataSource(JdbcUtil.createDefaultInMemoryH2DataSource(),
+                PoolConfig.builder().maxPoolSize(params.getThreads()).build());
+        recreateProductsTable();
+        productDao = new ProductDaoImpl(dataSource);
+        List<Product> products = IntStream.range(0, datasetSize)
+                .mapToObj(ProductDaoBenchmark::createProduct)
+                .collect(Collectors.toList());
+        productDao.saveAll(products);
+        ids = products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    private void recreateProductsTable() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS products");
+            statement.execute(FileReader.readWholeFileFromResources("db/products.sql"));
+        }
+    }
+
+    private static Product createProduct(int i) {
+        return Product.builder()
+                .name("product-" + i)
+                .producer("producer-" + i % 100)
+                .price(BigDecimal.valueOf(i % 1000, 2))
+                .expirationDate(LocalDate.of(2030, 1, 1).plusDays(i % 365))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(randomId());
+    }
+
+    @Benchmark
+    public Page<Product> findPage() {
+        return productDao.findPage(randomId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void save() {
+        productDao.save(createProduct(ThreadLocalRandom.current().nextInt(datasetSize)));
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
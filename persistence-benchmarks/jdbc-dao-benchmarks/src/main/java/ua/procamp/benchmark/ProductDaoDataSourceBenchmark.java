@@ -0,0 +1,108 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ua.procamp.dao.ProductDao;
+import ua.procamp.dao.ProductDaoImpl;
+import ua.procamp.model.Product;
+import ua.procamp.util.FileReader;
+import ua.procamp.util.JdbcUtil;
+import ua.procamp.util.PoolConfig;
+import ua.procamp.util.PooledDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares throughput of {@link ProductDao#findOne(Long)} on a plain and a pooled {@link DataSource}, with and
+ * without prepared statement cache. It runs with 4 threads by default, pools have a connection for every thread.
+ * <p>
+ * By default it uses in-memory H2, pass {@code -p database=postgres} to run it against
+ * {@link JdbcUtil#createDefaultPostgresDataSource()}, where the difference is much bigger.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ProductDaoDataSourceBenchmark {
+    private static final int PRODUCTS_COUNT = 1_000;
+
+    @Param({"h2"})
+    private String database;
+
+    @Param({"unpooled", "pooled", "pooled-statement-cache"})
+    private String dataSourceType;
+
+    private PooledDataSource pooledDataSource;
+    private ProductDao productDao;
+    private List<Long> ids;
+
+    @Setup
+    public void setup(BenchmarkParams params) throws SQLException {
+        DataSource dataSource = database.equals("postgres") ? JdbcUtil.createDefaultPostgresDataSource()
+                : JdbcUtil.createDefaultInMemoryH2DataSource();
+        createProductsTable(dataSource);
+        ids = insertProducts(new ProductDaoImpl(dataSource));
+        productDao = new ProductDaoImpl(wrap(dataSource, params.getThreads()));
+    }
+
+    private static void createProductsTable(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(FileReader.readWholeFileFromResources("db/products.sql"));
+        }
+    }
+
+    private static List<Long> insertProducts(ProductDao productDao) {
+        List<Product> products = IntStream.range(0, PRODUCTS_COUNT)
+                .mapToObj(i -> Product.builder()
+                        .name("product-" + i)
+                        .producer("producer-" + i)
+                        .price(BigDecimal.valueOf(i))
+                        .expirationDate(LocalDate.of(2030, 1, 1).plusDays(i))
+                        .build())
+                .collect(Collectors.toList());
+        productDao.saveAll(products);
+        return products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    private DataSource wrap(DataSource dataSource, int threads) {
+        switch (dataSourceType) {
+            case "unpooled":
+                return dataSource;
+            case "pooled":
+                pooledDataSource = JdbcUtil.createPooledDataSource(dataSource,
+                        PoolConfig.builder().maxPoolSize(threads).build());
+                return pooledDataSource;
+            case "pooled-statement-cache":
+                pooledDataSource = JdbcUtil.createPooledDataSource(dataSource,
+                        PoolConfig.builder().maxPoolSize(threads).statementCacheSize(16).build());
+                return pooledDataSource;
+            default:
+                throw new IllegalArgumentException("Unknown data source type " + dataSourceType);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pooledDataSource != null) {
+            pooledDataSource.close();
+        }
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+}
@@ -0,0 +1,75 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ua.procamp.dao.ProductDao;
+import ua.procamp.dao.ProductDaoImpl;
+import ua.procamp.model.Product;
+import ua.procamp.util.FileReader;
+import ua.procamp.util.JdbcUtil;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the time to insert {@value #PRODUCTS_COUNT} products with {@link ProductDao#save(Product)} called per row
+ * and with {@link ProductDao#saveAll} with different batch sizes. Every invocation starts with an empty
+ * {@code products} table.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductDaoInsertBenchmark {
+    private static final int PRODUCTS_COUNT = 100_000;
+
+    private DataSource dataSource;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        dataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareInsert() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS products");
+            statement.execute(FileReader.readWholeFileFromResources("db/products.sql"));
+        }
+        products = IntStream.range(0, PRODUCTS_COUNT)
+                .mapToObj(i -> Product.builder()
+                        .name("product-" + i)
+                        .producer("producer-" + i)
+                        .price(BigDecimal.valueOf(i % 100))
+                        .expirationDate(LocalDate.of(2030, 1, 1).plusDays(i % 365))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @State(Scope.Benchmark)
+    public static class BatchSize {
+        @Param({"50", "500", "5000"})
+        private int batchSize;
+    }
+
+    @Benchmark
+    public void save() {
+        ProductDao productDao = new ProductDaoImpl(dataSource);
+        products.forEach(productDao::save);
+    }
+
+    @Benchmark
+    public void saveAll(BatchSize batchSize) {
+        new ProductDaoImpl(dataSource, batchSize.batchSize).saveAll(products);
+    }
+}
@@ -0,0 +1,85 @@
+package ua.procamp.benchmark;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ua.procamp.dao.AccountDao;
+import ua.procamp.dao.AccountDaoImpl;
+import ua.procamp.dao.CachingAccountDao;
+import ua.procamp.dao.Page;
+import ua.procamp.model.Account;
+import ua.procamp.util.AccountGenerator;
+import ua.procamp.util.EntityManagerUtil;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput and latency of {@link AccountDao} lookups on a deterministic dataset of accounts. Lookups are
+ * run on {@link AccountDaoImpl}, that opens an entity manager and a transaction for each lookup:
+ * <ul>
+ * <li>{@code none} - with Hibernate second-level and natural-id caches disabled, as an uncached baseline</li>
+ * <li>{@code second-level} - with second-level and natural-id caches enabled in the persistence unit</li>
+ * <li>{@code caching-dao} - wrapped into {@link CachingAccountDao}, with Hibernate caches disabled</li>
+ * </ul>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountDaoBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000"})
+    private int datasetSize;
+
+    @Param({"none", "second-level", "caching-dao"})
+    private String cache;
+
+    private BenchmarkDatabase database;
+    private AccountDao accountDao;
+    private List<Account> accounts;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+        database = cache.equals("second-level") ? new BenchmarkDatabase("AccountBenchmark", params.getThreads())
+                : new BenchmarkDatabase("AccountBenchmark", params.getThreads(),
+                Map.of(AvailableSettings.USE_SECOND_LEVEL_CACHE, false));
+        AccountDao accountDaoImpl = new AccountDaoImpl(database.getEntityManagerFactory());
+        accountDao = cache.equals("caching-dao")
+                ? new CachingAccountDao(accountDaoImpl, datasetSize, Duration.ofMinutes(10))
+                : accountDaoImpl;
+        accounts = new AccountGenerator(42).generateAccountList(datasetSize);
+        new EntityManagerUtil(database.getEntityManagerFactory())
+                .performWithinTx(entityManager -> accounts.forEach(entityManager::persist));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Account findById() {
+        return accountDao.findById(randomAccount().getId());
+    }
+
+    @Benchmark
+    public Account findByEmail() {
+        return accountDao.findByEmail(randomAccount().getEmail());
+    }
+
+    @Benchmark
+    public Page<Account> findPage() {
+        return accountDao.findPage(randomAccount().getId(), PAGE_SIZE);
+    }
+
+    private Account randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+    }
+}
@@ -0,0 +1,87 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ua.procamp.model.Account;
+import ua.procamp.util.AccountGenerator;
+import ua.procamp.util.EntityManagerUtil;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of flushing a persistence context with many managed accounts. Without bytecode enhancement
+ * Hibernate finds dirty entities by comparing every managed account with its loaded snapshot, so flush time grows with
+ * the number of managed accounts. Entities enhanced with dirty tracking report their changes themselves.
+ * <p>
+ * Compare runs with the model built as is, and built with {@code mvn install -Pbytecode-enhancement}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountFlushBenchmark {
+
+    @Param({"1000", "10000"})
+    private int managedAccounts;
+
+    private BenchmarkDatabase database;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+        database = new BenchmarkDatabase("AccountBenchmark", params.getThreads());
+        List<Account> accounts = new AccountGenerator(42).generateAccountList(managedAccounts);
+        new EntityManagerUtil(database.getEntityManagerFactory())
+                .performWithinTx(entityManager -> accounts.forEach(entityManager::persist));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    /**
+     * An open transaction with all accounts loaded into the persistence context. Changes are rolled back after
+     * each iteration
+     */
+    @State(Scope.Thread)
+    public static class PersistenceContext {
+        private EntityManager entityManager;
+        private List<Account> accounts;
+        private int nextAccount;
+
+        @Setup(Level.Iteration)
+        public void open(AccountFlushBenchmark benchmark) {
+            entityManager = benchmark.database.getEntityManagerFactory().createEntityManager();
+            entityManager.getTransaction().begin();
+            accounts = entityManager.createQuery("select a from Account a", Account.class).getResultList();
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            entityManager.getTransaction().rollback();
+            entityManager.close();
+        }
+
+        private Account nextAccount() {
+            nextAccount = (nextAccount + 1) % accounts.size();
+            return accounts.get(nextAccount);
+        }
+    }
+
+    @Benchmark
+    public void flushWithoutChanges(PersistenceContext context) {
+        context.entityManager.flush();
+    }
+
+    @Benchmark
+    public void flushOneChange(PersistenceContext context) {
+        Account account = context.nextAccount();
+        account.setBalance(account.getBalance().add(BigDecimal.ONE));
+        context.entityManager.flush();
+    }
+}
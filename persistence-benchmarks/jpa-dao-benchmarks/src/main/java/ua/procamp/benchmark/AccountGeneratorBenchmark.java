@@ -0,0 +1,78 @@
+package ua.procamp.benchmark;
+
+import io.codearte.jfairy.Fairy;
+import io.codearte.jfairy.producer.person.Person;
+import org.openjdk.jmh.annotations.*;
+import ua.procamp.model.Account;
+import ua.procamp.model.Gender;
+import ua.procamp.util.AccountGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures accounts generated per second by the former {@code TestDataGenerator} implementation, that created
+ * {@link Fairy} for each account, and by {@link AccountGenerator}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountGeneratorBenchmark {
+    private static final int LEGACY_BATCH_SIZE = 10;
+    private static final int BATCH_SIZE = 10_000;
+
+    private AccountGenerator accountGenerator;
+
+    @Setup
+    public void setup() {
+        accountGenerator = new AccountGenerator(42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LEGACY_BATCH_SIZE)
+    public List<Account> legacyFairyPerAccount() {
+        return Stream.generate(AccountGeneratorBenchmark::generateLegacyAccount)
+                .limit(LEGACY_BATCH_SIZE)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Account> generatorSequential() {
+        return accountGenerator.generateAccountList(BATCH_SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Account> generatorParallel() {
+        return accountGenerator.generateAccountListInParallel(BATCH_SIZE);
+    }
+
+    private static Account generateLegacyAccount() {
+        Fairy fairy = Fairy.create();
+        Person person = fairy.person();
+        Random random = new Random();
+
+        Account fakeAccount = new Account();
+        fakeAccount.setFirstName(person.getFirstName());
+        fakeAccount.setLastName(person.getLastName());
+        fakeAccount.setEmail(person.getEmail());
+        fakeAccount.setBirthday(LocalDate.of(
+                person.getDateOfBirth().getYear(),
+                person.getDateOfBirth().getMonthOfYear(),
+                person.getDateOfBirth().getDayOfMonth()));
+        fakeAccount.setGender(Gender.valueOf(person.getSex().name()));
+        fakeAccount.setBalance(BigDecimal.valueOf(random.nextInt(200_000), 2));
+        fakeAccount.setCreationTime(LocalDateTime.now());
+        return fakeAccount;
+    }
+}
@@ -0,0 +1,47 @@
+package ua.procamp.benchmark;
+
+import org.hibernate.cfg.AvailableSettings;
+import ua.procamp.util.JdbcUtil;
+import ua.procamp.util.PoolConfig;
+import ua.procamp.util.PooledDataSource;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link BenchmarkDatabase} creates an {@link EntityManagerFactory} of a benchmark persistence unit on top of a pooled
+ * in-memory H2 database created by {@link JdbcUtil#createDefaultInMemoryH2DataSource()}. The pool has a connection
+ * for every benchmark thread, so threads don't wait for each other in the pool.
+ */
+class BenchmarkDatabase implements AutoCloseable {
+    private final PooledDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    BenchmarkDatabase(String persistenceUnitName, int threads) {
+        this(persistenceUnitName, threads, Map.of());
+    }
+
+    /**
+     * Creates a database whose persistence unit properties are overridden by given ones
+     */
+    BenchmarkDatabase(String persistenceUnitName, int threads, Map<String, Object> properties) {
+        this.dataSource = JdbcUtil.createPooledDataSource(JdbcUtil.createDefaultInMemoryH2DataSource(),
+                PoolConfig.builder().maxPoolSize(threads).build());
+        Map<String, Object> entityManagerFactoryProperties = new HashMap<>(properties);
+        entityManagerFactoryProperties.put(AvailableSettings.JPA_NON_JTA_DATASOURCE, dataSource);
+        this.entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName,
+                entityManagerFactoryProperties);
+    }
+
+    EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,67 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ua.procamp.dao.CompanyDao;
+import ua.procamp.dao.CompanyDaoImpl;
+import ua.procamp.model.Company;
+import ua.procamp.model.Product;
+import ua.procamp.util.EntityManagerUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput and latency of {@link CompanyDao#findByIdFetchProducts(Long)} depending on the number of
+ * companies and products per company
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompanyDaoBenchmark {
+    @Param({"100", "1000"})
+    private int companiesCount;
+
+    @Param({"10", "100"})
+    private int productsPerCompany;
+
+    private BenchmarkDatabase database;
+    private CompanyDao companyDao;
+    private List<Long> companyIds;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+        database = new BenchmarkDatabase("CompanyBenchmark", params.getThreads());
+        companyDao = new CompanyDaoImpl(database.getEntityManagerFactory());
+        companyIds = new ArrayList<>(companiesCount);
+        new EntityManagerUtil(database.getEntityManagerFactory()).performWithinTx(entityManager -> {
+            for (int i = 0; i < companiesCount; i++) {
+                Company company = new Company();
+                company.setName("company-" + i);
+                entityManager.persist(company);
+                for (int j = 0; j < productsPerCompany; j++) {
+                    Product product = new Product();
+                    product.setName("product-" + i + "-" + j);
+                    company.addProduct(product);
+                    entityManager.persist(product);
+                }
+                companyIds.add(company.getId());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Company findByIdFetchProducts() {
+        return companyDao.findByIdFetchProducts(companyIds.get(ThreadLocalRandom.current().nextInt(companyIds.size())));
+    }
+}
@@ -0,0 +1,99 @@
+package ua.procamp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import ua.procamp.dao.PhotoDao;
+import ua.procamp.dao.PhotoDaoImpl;
+import ua.procamp.dao.PhotoSummary;
+import ua.procamp.model.Photo;
+import ua.procamp.model.PhotoComment;
+import ua.procamp.util.EntityManagerUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput and latency of {@link PhotoDao} operations depending on the number of photos
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhotoDaoBenchmark {
+    private static final int COMMENTS_PER_PHOTO = 10;
+    private static final List<String> NEW_COMMENTS = Collections.nCopies(COMMENTS_PER_PHOTO, "Nice picture!");
+
+    @Param({"100", "1000"})
+    private int photosCount;
+
+    private BenchmarkDatabase database;
+    private PhotoDao photoDao;
+    private List<Long> photoIds;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+        database = new BenchmarkDatabase("PhotoBenchmark", params.getThreads());
+        photoDao = new PhotoDaoImpl(database.getEntityManagerFactory());
+        photoIds = new ArrayList<>(photosCount);
+        new EntityManagerUtil(database.getEntityManagerFactory()).performWithinTx(entityManager -> {
+            for (int i = 0; i < photosCount; i++) {
+                Photo photo = new Photo();
+                photo.setUrl("https://photos.example.com/" + i);
+                photo.setDescription("photo-" + i);
+                for (int j = 0; j < COMMENTS_PER_PHOTO; j++) {
+                    PhotoComment comment = new PhotoComment();
+                    comment.setText("comment-" + i + "-" + j);
+                    comment.setCreatedOn(LocalDateTime.of(2018, 1, 1, 0, 0).plusMinutes(j));
+                    photo.addComment(comment);
+                }
+                entityManager.persist(photo);
+                photoIds.add(photo.getId());
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Photo findById() {
+        return photoDao.findById(randomPhotoId());
+    }
+
+    @Benchmark
+    public List<Photo> findAll() {
+        return photoDao.findAll();
+    }
+
+    @Benchmark
+    public List<Photo> findAllWithComments() {
+        return photoDao.findAllWithComments();
+    }
+
+    @Benchmark
+    public List<PhotoSummary> findAllWithCommentCounts() {
+        return photoDao.findAllWithCommentCounts();
+    }
+
+    @Benchmark
+    public void addComment() {
+        photoDao.addComment(randomPhotoId(), "Nice picture!");
+    }
+
+    @Benchmark
+    public void addComments() {
+        photoDao.addComments(randomPhotoId(), NEW_COMMENTS);
+    }
+
+    private long randomPhotoId() {
+        return photoIds.get(ThreadLocalRandom.current().nextInt(photoIds.size()));
+    }
+}
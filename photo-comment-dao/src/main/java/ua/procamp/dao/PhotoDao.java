@@ -1,6 +1,7 @@
 package ua.procamp.dao;
 
 import ua.procamp.model.Photo;
+import ua.procamp.model.PhotoComment;
 
 import java.util.List;
 
@@ -31,6 +32,21 @@ public interface PhotoDao {
      */
     List<Photo> findAll();
 
+    /**
+     * Returns a list of all stored photos with initialized comments. Photos and comments are loaded by two queries
+     * regardless of the number of photos
+     *
+     * @return list of stored photos with their comments
+     */
+    List<Photo> findAllWithComments();
+
+    /**
+     * Returns summaries of all stored photos with numbers of their comments, without loading the comments
+     *
+     * @return list of photo summaries ordered by photo id
+     */
+    List<PhotoSummary> findAllWithCommentCounts();
+
     /**
      * Removes a photo from the database
      *
@@ -46,4 +62,34 @@ public interface PhotoDao {
      * @param comment
      */
     void addComment(long photoId, String comment);
+
+    /**
+     * Adds new comments to an existing photo in one transaction. Comments are inserted in JDBC batches, without
+     * loading {@link Photo} or its comments.
+     *
+     * @param photoId  photo id
+     * @param comments comment texts
+     */
+    void addComments(long photoId, List<String> comments);
+
+    /**
+     * Returns the latest comments of a photo, newest first. Comments created at the same time are ordered by id
+     *
+     * @param photoId photo id
+     * @param limit   max number of comments
+     * @return list of the latest comments
+     */
+    List<PhotoComment> findLatestComments(long photoId, int limit);
+
+    /**
+     * Returns a page of comments of a photo that are older than a given comment, newest first. It's a keyset
+     * pagination by {@code (createdOn, id)}, so the last comment of a page is passed to get the next one. Pages are
+     * read by an index range scan, regardless of how far the thread is scrolled.
+     *
+     * @param photoId     photo id
+     * @param lastComment the last comment of the previous page
+     * @param limit       max number of comments
+     * @return list of comments older than the given one
+     */
+    List<PhotoComment> findCommentsBefore(long photoId, PhotoComment lastComment, int limit);
 }
@@ -1,42 +1,133 @@
 package ua.procamp.dao;
 
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import ua.procamp.model.Photo;
+import ua.procamp.model.PhotoComment;
+import ua.procamp.util.EntityManagerUtil;
 
 import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Please note that you should not use auto-commit mode for your implementation.
  */
 public class PhotoDaoImpl implements PhotoDao {
+    private static final String INSERT_COMMENT_SQL = "INSERT INTO photo_comment(text, created_on, photo_id) VALUES (?, ?, ?)";
+    private static final int COMMENTS_BATCH_SIZE = 50;
+
     private EntityManagerFactory entityManagerFactory;
+    private EntityManagerUtil emUtil;
 
     public PhotoDaoImpl(EntityManagerFactory entityManagerFactory) {
         this.entityManagerFactory = entityManagerFactory;
+        this.emUtil = new EntityManagerUtil(entityManagerFactory);
     }
 
     @Override
     public void save(Photo photo) {
-        throw new UnsupportedOperationException("Just do it!"); // todo
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
     }
 
     @Override
     public Photo findById(long id) {
-        throw new UnsupportedOperationException("Just do it!"); // todo
+        return emUtil.performReturningWithinTx(entityManager -> entityManager.find(Photo.class, id));
     }
 
     @Override
     public List<Photo> findAll() {
-        throw new UnsupportedOperationException("Just do it!"); // todo
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("select p from Photo p", Photo.class).getResultList());
+    }
+
+    @Override
+    public List<Photo> findAllWithComments() {
+        return emUtil.performReturningWithinTx(entityManager -> {
+            List<Photo> photos = entityManager.createQuery("select p from Photo p order by p.id", Photo.class)
+                    .getResultList();
+            // comments are mapped with subselect fetching, so comments of all photos are loaded at once
+            photos.stream().findFirst().ifPresent(photo -> Hibernate.initialize(photo.getComments()));
+            return photos;
+        });
+    }
+
+    @Override
+    public List<PhotoSummary> findAllWithCommentCounts() {
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("select new ua.procamp.dao.PhotoSummary(p.id, p.url, p.description, count(c)) " +
+                        "from Photo p left join p.comments c " +
+                        "group by p.id, p.url, p.description order by p.id", PhotoSummary.class)
+                        .getResultList());
     }
 
     @Override
     public void remove(Photo photo) {
-        throw new UnsupportedOperationException("Just do it!"); // todo
+        emUtil.performWithinTx(entityManager -> entityManager.remove(entityManager.merge(photo)));
     }
 
     @Override
     public void addComment(long photoId, String comment) {
-        throw new UnsupportedOperationException("Just do it!"); // todo
+        emUtil.performWithinTx(entityManager -> {
+            // a reference doesn't load the photo, and comments collection is not touched
+            Photo photo = entityManager.getReference(Photo.class, photoId);
+            PhotoComment photoComment = new PhotoComment();
+            photoComment.setText(comment);
+            photoComment.setCreatedOn(LocalDateTime.now());
+            photoComment.setPhoto(photo);
+            entityManager.persist(photoComment);
+        });
+    }
+
+    @Override
+    public void addComments(long photoId, List<String> comments) {
+        if (comments.isEmpty()) {
+            return;
+        }
+        // comment ids are generated by the database, so Hibernate can't batch inserts of PhotoComment entities
+        emUtil.performWithinTx(entityManager -> entityManager.unwrap(Session.class).doWork(connection -> {
+            Timestamp createdOn = Timestamp.valueOf(LocalDateTime.now());
+            try (PreparedStatement insertStatement = connection.prepareStatement(INSERT_COMMENT_SQL)) {
+                for (int i = 0; i < comments.size(); i++) {
+                    insertStatement.setString(1, comments.get(i));
+                    insertStatement.setTimestamp(2, createdOn);
+                    insertStatement.setLong(3, photoId);
+                    insertStatement.addBatch();
+                    if ((i + 1) % COMMENTS_BATCH_SIZE == 0) {
+                        insertStatement.executeBatch();
+                    }
+                }
+                if (comments.size() % COMMENTS_BATCH_SIZE != 0) {
+                    insertStatement.executeBatch();
+                }
+            }
+        }));
+    }
+
+    @Override
+    public List<PhotoComment> findLatestComments(long photoId, int limit) {
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("select c from PhotoComment c where c.photo.id = :photoId " +
+                        "order by c.createdOn desc, c.id desc", PhotoComment.class)
+                        .setParameter("photoId", photoId)
+                        .setMaxResults(limit)
+                        .getResultList());
+    }
+
+    @Override
+    public List<PhotoComment> findCommentsBefore(long photoId, PhotoComment lastComment, int limit) {
+        // the first condition bounds the index range, the second one skips comments up to the last one
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery("select c from PhotoComment c where c.photo.id = :photoId " +
+                        "and c.createdOn <= :createdOn " +
+                        "and (c.createdOn < :createdOn or c.id < :id) " +
+                        "order by c.createdOn desc, c.id desc", PhotoComment.class)
+                        .setParameter("photoId", photoId)
+                        .setParameter("createdOn", lastComment.getCreatedOn())
+                        .setParameter("id", lastComment.getId())
+                        .setMaxResults(limit)
+                        .getResultList());
     }
 }
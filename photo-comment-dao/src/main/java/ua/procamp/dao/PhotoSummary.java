@@ -0,0 +1,27 @@
+package ua.procamp.dao;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ua.procamp.model.Photo;
+
+/**
+ * {@link PhotoSummary} is a read-only projection of a {@link Photo} with a number of its comments. It's selected
+ * by a single aggregate query, so no comments are loaded to count them.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class PhotoSummary {
+    private final Long id;
+    private final String url;
+    private final String description;
+    private final long commentCount;
+
+    public PhotoSummary(Long id, String url, String description, Long commentCount) {
+        this.id = id;
+        this.url = url;
+        this.description = description;
+        this.commentCount = commentCount;
+    }
+}
@@ -1,42 +1,47 @@
 package ua.procamp.model;
 
-import lombok.Getter;
-import lombok.Setter;
+import lombok.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
+import javax.persistence.*;
+import java.util.ArrayList;
 import java.util.List;
 
-/**
- * todo:
- * - implement no argument constructor
- * - implement getters and setters
- * - make a setter for field {@link Photo#comments} {@code private}
- * - implement equals() and hashCode() based on identifier field
- *
- * - configure JPA entity
- * - specify table name: "photo"
- * - configure auto generated identifier
- * - configure not nullable and unique column: url
- *
- * - initialize field comments
- * - map relation between Photo and PhotoComment on the child side
- * - implement helper methods {@link Photo#addComment(PhotoComment)} and {@link Photo#removeComment(PhotoComment)}
- * - enable cascade type {@link javax.persistence.CascadeType#ALL} for field {@link Photo#comments}
- * - enable orphan removal
- */
+@NoArgsConstructor
 @Getter
 @Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(name = "photo")
 public class Photo {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    @Column(name = "url", nullable = false, unique = true)
     private String url;
+
+    @Column(name = "description")
     private String description;
-    private List<PhotoComment> comments;
+
+    /**
+     * Comments of all photos loaded by the same query are initialized together by one subselect query, when comments
+     * of any of them are accessed
+     */
+    @Setter(AccessLevel.PRIVATE)
+    @Fetch(FetchMode.SUBSELECT)
+    @OneToMany(mappedBy = "photo", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<PhotoComment> comments = new ArrayList<>();
 
     public void addComment(PhotoComment comment) {
-        throw new UnsupportedOperationException("Make me work!");
+        comments.add(comment);
+        comment.setPhoto(this);
     }
 
     public void removeComment(PhotoComment comment) {
-        throw new UnsupportedOperationException("Make me work!");
+        comments.remove(comment);
+        comment.setPhoto(null);
     }
 
 }
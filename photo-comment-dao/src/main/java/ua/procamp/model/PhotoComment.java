@@ -1,29 +1,35 @@
 package ua.procamp.model;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.LazyToOne;
+import org.hibernate.annotations.LazyToOneOption;
 
+import javax.persistence.*;
 import java.time.LocalDateTime;
 
-/**
- * todo:
- * - implement no argument constructor
- * - implement getters and setters
- * - implement equals and hashCode based on identifier field
- *
- * - configure JPA entity
- * - specify table name: "photo_comment"
- * - configure auto generated identifier
- * - configure not nullable column: text
- *
- * - map relation between Photo and PhotoComment using foreign_key column: "photo_id"
- * - configure relation as mandatory (not optional)
- */
+@NoArgsConstructor
 @Getter
 @Setter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(name = "photo_comment",
+        indexes = @Index(name = "photo_comment_photo_id_created_on_id_idx", columnList = "photo_id, created_on, id"))
 public class PhotoComment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    @Column(name = "text", nullable = false)
     private String text;
+
+    @Column(name = "created_on", nullable = false)
     private LocalDateTime createdOn;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @LazyToOne(LazyToOneOption.NO_PROXY)
+    @JoinColumn(name = "photo_id")
     private Photo photo;
 }
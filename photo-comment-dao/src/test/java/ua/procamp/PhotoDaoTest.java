@@ -1,21 +1,36 @@
 package ua.procamp;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
 import ua.procamp.dao.PhotoDao;
 import ua.procamp.dao.PhotoDaoImpl;
+import ua.procamp.dao.PhotoSummary;
 import ua.procamp.model.Photo;
+import ua.procamp.model.PhotoComment;
 import ua.procamp.util.EntityManagerUtil;
+import ua.procamp.util.JdbcUtil;
+import ua.procamp.util.SqlStatementCounter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
+import static ua.procamp.util.PhotoTestDataGenerator.createListOfRandomComments;
 import static ua.procamp.util.PhotoTestDataGenerator.createListOfRandomPhotos;
 import static ua.procamp.util.PhotoTestDataGenerator.createRandomPhoto;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static java.util.stream.Collectors.toList;
+import static ua.procamp.util.SqlStatementAssertions.*;
 
 public class PhotoDaoTest {
     private EntityManagerUtil emUtil;
@@ -24,7 +39,11 @@ public class PhotoDaoTest {
 
     @BeforeEach
     public void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("PhotoComments");
+        // statements are counted by the data source, as comments are added with plain JDBC
+        DataSource dataSource = JdbcUtil.createStatementCountingDataSource(JdbcUtil.createInMemoryH2DataSource(
+                "jdbc:h2:mem:movie_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false", "movie_user", "movie_pass"));
+        entityManagerFactory = Persistence.createEntityManagerFactory("PhotoComments",
+                Map.of(AvailableSettings.JPA_NON_JTA_DATASOURCE, dataSource));
         emUtil = new EntityManagerUtil(entityManagerFactory);
         photoDao = new PhotoDaoImpl(entityManagerFactory);
     }
@@ -49,9 +68,11 @@ public class PhotoDaoTest {
         Photo photo = createRandomPhoto();
         emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
 
+        SqlStatementCounter.reset();
         Photo foundPhoto = photoDao.findById(photo.getId());
 
         assertThat(foundPhoto, equalTo(photo));
+        assertSelectCount(1);
     }
 
     @Test
@@ -59,9 +80,45 @@ public class PhotoDaoTest {
         List<Photo> listOfRandomPhotos = createListOfRandomPhotos(5);
         emUtil.performWithinTx(entityManager -> listOfRandomPhotos.forEach(entityManager::persist));
 
+        SqlStatementCounter.reset();
         List<Photo> foundPhotos = photoDao.findAll();
 
         assertThat(foundPhotos, containsInAnyOrder(listOfRandomPhotos.toArray()));
+        assertSelectCount(1);
+    }
+
+    @Test
+    public void testFindAllPhotosWithComments() {
+        List<Photo> listOfRandomPhotos = createListOfRandomPhotos(30);
+        listOfRandomPhotos.forEach(photo -> createListOfRandomComments(3).forEach(photo::addComment));
+        emUtil.performWithinTx(entityManager -> listOfRandomPhotos.forEach(entityManager::persist));
+
+        SqlStatementCounter.reset();
+        List<Photo> foundPhotos = photoDao.findAllWithComments();
+
+        assertSelectCount(2);
+        assertThat(foundPhotos, equalTo(listOfRandomPhotos));
+        foundPhotos.forEach(photo -> assertThat(photo.getComments(), hasSize(3)));
+    }
+
+    @Test
+    public void testFindAllPhotosWithCommentCounts() {
+        List<Photo> listOfRandomPhotos = createListOfRandomPhotos(3);
+        for (int i = 0; i < listOfRandomPhotos.size(); i++) {
+            createListOfRandomComments(i * 2).forEach(listOfRandomPhotos.get(i)::addComment);
+        }
+        emUtil.performWithinTx(entityManager -> listOfRandomPhotos.forEach(entityManager::persist));
+
+        SqlStatementCounter.reset();
+        List<PhotoSummary> photoSummaries = photoDao.findAllWithCommentCounts();
+
+        assertSelectCount(1);
+        assertThat(photoSummaries, hasSize(3));
+        for (int i = 0; i < photoSummaries.size(); i++) {
+            Photo photo = listOfRandomPhotos.get(i);
+            assertThat(photoSummaries.get(i), equalTo(
+                    new PhotoSummary(photo.getId(), photo.getUrl(), photo.getDescription(), (long) i * 2)));
+        }
     }
 
     @Test
@@ -80,7 +137,11 @@ public class PhotoDaoTest {
         Photo photo = createRandomPhoto();
         emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
 
+        SqlStatementCounter.reset();
         photoDao.addComment(photo.getId(), "Nice picture!");
+        assertInsertCount(1);
+        // Hibernate 5.3 can't keep a reference to an enhanced photo (-Pbytecode-enhancement) uninitialized on persist
+        assertStatementCount(PersistentAttributeInterceptable.class.isAssignableFrom(Photo.class) ? 2 : 1);
 
         emUtil.performWithinTx(entityManager -> {
             Photo managedPhoto = entityManager.find(Photo.class, photo.getId());
@@ -88,4 +149,64 @@ public class PhotoDaoTest {
                     hasItem(hasProperty("text", equalTo("Nice picture!"))));
         });
     }
+
+    @Test
+    public void testAddPhotoComments() {
+        Photo photo = createRandomPhoto();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
+        List<String> comments = IntStream.range(0, 120).mapToObj(i -> "Comment " + i).collect(toList());
+
+        SqlStatementCounter.reset();
+        photoDao.addComments(photo.getId(), comments);
+        // 120 comments are inserted in batches of 50, 50 and 20
+        assertStatementCount(3);
+        assertInsertCount(3);
+
+        emUtil.performWithinTx(entityManager -> {
+            Photo managedPhoto = entityManager.find(Photo.class, photo.getId());
+            assertThat(managedPhoto.getComments(), hasSize(120));
+            assertThat(managedPhoto.getComments(), hasItem(hasProperty("text", equalTo("Comment 119"))));
+        });
+    }
+
+    @Test
+    public void testPageCommentsByCreationTime() {
+        Photo photo = createRandomPhoto();
+        LocalDateTime createdOn = LocalDateTime.of(2018, 1, 1, 0, 0);
+        List<PhotoComment> comments = createListOfRandomComments(25);
+        for (int i = 0; i < comments.size(); i++) {
+            // every two comments are created at the same time
+            comments.get(i).setCreatedOn(createdOn.plusMinutes(i / 2));
+            photo.addComment(comments.get(i));
+        }
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
+
+        List<PhotoComment> foundComments = new ArrayList<>(photoDao.findLatestComments(photo.getId(), 10));
+        List<PhotoComment> page = foundComments;
+        while (!page.isEmpty()) {
+            SqlStatementCounter.reset();
+            page = photoDao.findCommentsBefore(photo.getId(), page.get(page.size() - 1), 10);
+            assertSelectCount(1);
+            assertThat(page.size(), lessThanOrEqualTo(10));
+            foundComments.addAll(page);
+        }
+
+        Collections.reverse(comments);
+        assertThat(foundComments, equalTo(comments));
+    }
+
+    @Test
+    public void testFindLatestComments() {
+        Photo photo = createRandomPhoto();
+        List<PhotoComment> comments = createListOfRandomComments(5);
+        for (int i = 0; i < comments.size(); i++) {
+            comments.get(i).setCreatedOn(LocalDateTime.of(2018, 1, 1, 0, 0).plusDays(i));
+            photo.addComment(comments.get(i));
+        }
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
+
+        List<PhotoComment> latestComments = photoDao.findLatestComments(photo.getId(), 2);
+
+        assertThat(latestComments, contains(comments.get(4), comments.get(3)));
+    }
 }
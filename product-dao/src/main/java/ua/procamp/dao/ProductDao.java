@@ -2,7 +2,10 @@ package ua.procamp.dao;
 
 import ua.procamp.model.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * {@link ProductDao} is an Data Access Object pattern (DAO) that encapsulates all database access and manipulation logic.
@@ -16,6 +19,15 @@ public interface ProductDao {
      */
     void save(Product product);
 
+    /**
+     * Stores new products into the database using JDBC batches and sets generated ids to each {@link Product}.
+     * All products are inserted through one connection, the transaction is committed after each batch. If some
+     * batch fails, it is rolled back, while products from previously committed batches stay stored.
+     *
+     * @param products new products
+     */
+    void saveAll(Collection<Product> products);
+
     /**
      * Retrieves and returns all producrs from the database
      *
@@ -23,6 +35,42 @@ public interface ProductDao {
      */
     List<Product> findAll();
 
+    /**
+     * Returns a lazy stream of all products ordered by id, that is backed by a forward-only read-only result set. Rows
+     * are fetched from the database while the stream is consumed, so memory usage does not depend on the table size.
+     * <p>
+     * The stream holds an open connection, so it must be closed, e.g. by using try-with-resources statement.
+     *
+     * @return stream of all products
+     */
+    Stream<Product> streamAll();
+
+    /**
+     * The same as {@link ProductDao#streamAll()}, but fetches rows from the database by chunks of given size
+     *
+     * @param fetchSize number of rows fetched from the database at once
+     * @return stream of all products
+     */
+    Stream<Product> streamAll(int fetchSize);
+
+    /**
+     * Performs an action for each product stored in the database without loading all of them into memory
+     *
+     * @param action an action performed for each product
+     */
+    void forEach(Consumer<Product> action);
+
+    /**
+     * Returns a page of products ordered by id, that goes right after a product with id {@code afterId}. It uses keyset
+     * pagination, so the database seeks directly to the first row of the page using primary key index, and each
+     * page costs the same no matter how deep it is.
+     *
+     * @param afterId a cursor returned with previous page, or {@code null} to get the first page
+     * @param limit   maximum number of products on the page
+     * @return page of products
+     */
+    Page<Product> findPage(Long afterId, int limit);
+
     /**
      * Returns a product object by its id
      *
@@ -1,40 +1,339 @@
 package ua.procamp.dao;
 
+import ua.procamp.exception.DaoOperationException;
 import ua.procamp.model.Product;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ProductDaoImpl implements ProductDao {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+
+    private static final String INSERT_SQL = "INSERT INTO products(name, producer, price, expiration_date) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_ALL_SQL = "SELECT * FROM products";
+    private static final String SELECT_ALL_ORDERED_SQL = "SELECT * FROM products ORDER BY id";
+    private static final String SELECT_FIRST_PAGE_SQL = "SELECT * FROM products ORDER BY id LIMIT ?";
+    private static final String SELECT_PAGE_SQL = "SELECT * FROM products WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BY_ID_SQL = "SELECT * FROM products WHERE id = ?";
+    private static final String UPDATE_SQL = "UPDATE products SET name = ?, producer = ?, price = ?, expiration_date = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM products WHERE id = ?";
+
     private DataSource dataSource;
+    private int batchSize;
 
     public ProductDaoImpl(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public ProductDaoImpl(DataSource dataSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size should be positive");
+        }
         this.dataSource = dataSource;
+        this.batchSize = batchSize;
     }
 
     @Override
     public void save(Product product) {
-        throw new UnsupportedOperationException("None of these methods will work unless you implement them!");// todo
+        Objects.requireNonNull(product);
+        try (Connection connection = dataSource.getConnection()) {
+            saveProduct(product, connection);
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error saving product: %s", product), e);
+        }
+    }
+
+    private void saveProduct(Product product, Connection connection) throws SQLException {
+        try (PreparedStatement insertStatement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            fillProductStatement(product, insertStatement);
+            insertStatement.executeUpdate();
+            product.setId(fetchGeneratedId(insertStatement));
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Product> products) {
+        Objects.requireNonNull(products);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                saveInBatches(products, connection);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error saving %d products", products.size()), e);
+        }
+    }
+
+    private void saveInBatches(Collection<Product> products, Connection connection) throws SQLException {
+        try (PreparedStatement insertStatement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            Iterator<Product> productIterator = products.iterator();
+            List<Product> batch = new ArrayList<>(Math.min(batchSize, products.size()));
+            while (productIterator.hasNext()) {
+                Product product = productIterator.next();
+                fillProductStatement(product, insertStatement);
+                insertStatement.addBatch();
+                batch.add(product);
+                if (batch.size() == batchSize || !productIterator.hasNext()) {
+                    executeBatch(insertStatement, batch, connection);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void executeBatch(PreparedStatement insertStatement, List<Product> batch, Connection connection) throws SQLException {
+        try {
+            insertStatement.executeBatch();
+            List<Long> generatedIds = fetchGeneratedIds(insertStatement, batch.size());
+            connection.commit();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(generatedIds.get(i));
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private List<Long> fetchGeneratedIds(PreparedStatement insertStatement, int expectedCount) throws SQLException {
+        List<Long> generatedIds = new ArrayList<>(expectedCount);
+        try (ResultSet generatedKeys = insertStatement.getGeneratedKeys()) {
+            while (generatedKeys.next()) {
+                generatedIds.add(generatedKeys.getLong(1));
+            }
+        }
+        if (generatedIds.size() != expectedCount) {
+            throw new DaoOperationException(String.format("Expected %d generated product IDs, but got %d",
+                    expectedCount, generatedIds.size()));
+        }
+        return generatedIds;
+    }
+
+    private void fillProductStatement(Product product, PreparedStatement statement) throws SQLException {
+        statement.setString(1, product.getName());
+        statement.setString(2, product.getProducer());
+        statement.setBigDecimal(3, product.getPrice());
+        statement.setDate(4, Date.valueOf(product.getExpirationDate()));
+    }
+
+    private Long fetchGeneratedId(PreparedStatement insertStatement) throws SQLException {
+        try (ResultSet generatedKeys = insertStatement.getGeneratedKeys()) {
+            if (generatedKeys.next()) {
+                return generatedKeys.getLong(1);
+            }
+            throw new DaoOperationException("Can not obtain product ID");
+        }
     }
 
     @Override
     public List<Product> findAll() {
-        throw new UnsupportedOperationException("None of these methods will work unless you implement them!");// todo
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SELECT_ALL_SQL)) {
+            return collectToList(resultSet);
+        } catch (SQLException e) {
+            throw new DaoOperationException("Error finding all products", e);
+        }
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    public Stream<Product> streamAll(int fetchSize) {
+        Connection connection = null;
+        Statement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            // PostgreSQL driver uses a server-side cursor only when auto-commit is disabled
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            ResultSet resultSet = statement.executeQuery(SELECT_ALL_ORDERED_SQL);
+            Connection streamConnection = connection;
+            Statement streamStatement = statement;
+            return StreamSupport.stream(new ProductSpliterator(resultSet), false)
+                    .onClose(() -> closeStream(streamStatement, streamConnection));
+        } catch (SQLException e) {
+            if (connection != null) {
+                closeStream(statement, connection);
+            }
+            throw new DaoOperationException("Error streaming all products", e);
+        }
+    }
+
+    private void closeStream(Statement statement, Connection connection) {
+        try (connection) {
+            if (statement != null) {
+                statement.close();
+            }
+            connection.rollback();
+            connection.setReadOnly(false);
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new DaoOperationException("Error closing products stream", e);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Product> action) {
+        Objects.requireNonNull(action);
+        try (Stream<Product> products = streamAll()) {
+            products.forEach(action);
+        }
+    }
+
+    private class ProductSpliterator extends Spliterators.AbstractSpliterator<Product> {
+        private final ResultSet resultSet;
+
+        private ProductSpliterator(ResultSet resultSet) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Product> action) {
+            try {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                action.accept(parseRow(resultSet));
+                return true;
+            } catch (SQLException e) {
+                throw new DaoOperationException("Error reading products stream", e);
+            }
+        }
+    }
+
+    @Override
+    public Page<Product> findPage(Long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit should be positive");
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement selectStatement = prepareSelectPageStatement(connection, afterId, limit)) {
+            try (ResultSet resultSet = selectStatement.executeQuery()) {
+                return toPage(collectToList(resultSet), limit);
+            }
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error finding products page after id = %d", afterId), e);
+        }
+    }
+
+    private PreparedStatement prepareSelectPageStatement(Connection connection, Long afterId, int limit) throws SQLException {
+        // one extra row is fetched to find out whether there is a next page
+        if (afterId == null) {
+            PreparedStatement selectStatement = connection.prepareStatement(SELECT_FIRST_PAGE_SQL);
+            selectStatement.setInt(1, limit + 1);
+            return selectStatement;
+        }
+        PreparedStatement selectStatement = connection.prepareStatement(SELECT_PAGE_SQL);
+        selectStatement.setLong(1, afterId);
+        selectStatement.setInt(2, limit + 1);
+        return selectStatement;
+    }
+
+    private Page<Product> toPage(List<Product> products, int limit) {
+        if (products.size() <= limit) {
+            return new Page<>(products, null);
+        }
+        List<Product> content = new ArrayList<>(products.subList(0, limit));
+        return new Page<>(content, content.get(limit - 1).getId());
+    }
+
+    private List<Product> collectToList(ResultSet resultSet) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        while (resultSet.next()) {
+            products.add(parseRow(resultSet));
+        }
+        return products;
+    }
+
+    private Product parseRow(ResultSet resultSet) throws SQLException {
+        return Product.builder()
+                .id(resultSet.getLong("id"))
+                .name(resultSet.getString("name"))
+                .producer(resultSet.getString("producer"))
+                .price(resultSet.getBigDecimal("price"))
+                .expirationDate(resultSet.getDate("expiration_date").toLocalDate())
+                .creationTime(resultSet.getTimestamp("creation_time").toLocalDateTime())
+                .build();
     }
 
     @Override
     public Product findOne(Long id) {
-        throw new UnsupportedOperationException("None of these methods will work unless you implement them!");// todo
+        Objects.requireNonNull(id);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement selectStatement = connection.prepareStatement(SELECT_BY_ID_SQL)) {
+            selectStatement.setLong(1, id);
+            try (ResultSet resultSet = selectStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return parseRow(resultSet);
+                }
+                throw new DaoOperationException(String.format("Product with id = %d does not exist", id));
+            }
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error finding product by id = %d", id), e);
+        }
     }
 
     @Override
     public void update(Product product) {
-        throw new UnsupportedOperationException("None of these methods will work unless you implement them!");// todo
+        verifyProductId(product);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement updateStatement = connection.prepareStatement(UPDATE_SQL)) {
+            fillProductStatement(product, updateStatement);
+            updateStatement.setLong(5, product.getId());
+            verifyRowAffected(updateStatement.executeUpdate(), product.getId());
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error updating product: %s", product), e);
+        }
     }
 
     @Override
     public void remove(Product product) {
-        throw new UnsupportedOperationException("None of these methods will work unless you implement them!");// todo
+        verifyProductId(product);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement deleteStatement = connection.prepareStatement(DELETE_SQL)) {
+            deleteStatement.setLong(1, product.getId());
+            verifyRowAffected(deleteStatement.executeUpdate(), product.getId());
+        } catch (SQLException e) {
+            throw new DaoOperationException(String.format("Error removing product: %s", product), e);
+        }
+    }
+
+    private void verifyProductId(Product product) {
+        Objects.requireNonNull(product);
+        if (product.getId() == null) {
+            throw new DaoOperationException("Product id cannot be null");
+        }
+    }
+
+    private void verifyRowAffected(int rowsAffected, Long id) {
+        if (rowsAffected == 0) {
+            throw new DaoOperationException(String.format("Product with id = %d does not exist", id));
+        }
     }
 
 }
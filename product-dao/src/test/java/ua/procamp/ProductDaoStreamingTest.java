@@ -0,0 +1,86 @@
+package ua.procamp;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import ua.procamp.dao.ProductDao;
+import ua.procamp.dao.ProductDaoImpl;
+import ua.procamp.model.Product;
+import ua.procamp.util.FileReader;
+import ua.procamp.util.JdbcUtil;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Streams a million products through {@link ProductDao#streamAll()}. The test is run only by {@code streaming-test}
+ * profile ({@code mvn test -Pstreaming-test}), in a separate surefire execution with a heap that is too small to hold
+ * all products at once (see pom.xml), so it fails with {@link OutOfMemoryError} if rows are materialized. A file-based
+ * H2 database is used to keep the table itself out of the heap.
+ */
+@RunWith(JUnit4.class)
+public class ProductDaoStreamingTest {
+    private static final int PRODUCTS_COUNT = 1_000_000;
+    private static final String DATABASE_PATH = new File("target/streaming-test/products_db").getAbsolutePath();
+
+    private static DataSource h2DataSource;
+    private static ProductDao productDao;
+
+    @BeforeClass
+    public static void init() throws SQLException {
+        // page store without transaction logs fills the table several times faster than the default MVStore
+        String url = String.format("jdbc:h2:file:%s;DATABASE_TO_UPPER=false;MV_STORE=FALSE;LOG=0;UNDO_LOG=0", DATABASE_PATH);
+        h2DataSource = JdbcUtil.createInMemoryH2DataSource(url, "bobouser", "bobopass");
+        createAndFillProductsTable(h2DataSource);
+        productDao = new ProductDaoImpl(h2DataSource);
+    }
+
+    private static void createAndFillProductsTable(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Statement statement = connection.createStatement();
+            statement.execute("DROP TABLE IF EXISTS products");
+            statement.execute(FileReader.readWholeFileFromResources("db/products.sql"));
+            statement.execute(String.format("INSERT INTO products(name, producer, price, expiration_date) " +
+                    "SELECT CONCAT('product-', x), CONCAT('producer-', MOD(x, 100)), MOD(x, 1000), " +
+                    "DATEADD('DAY', MOD(x, 365), DATE '2030-01-01') FROM SYSTEM_RANGE(1, %d)", PRODUCTS_COUNT));
+        }
+    }
+
+    @AfterClass
+    public static void destroy() throws SQLException {
+        try (Connection connection = h2DataSource.getConnection()) {
+            connection.createStatement().execute("DROP ALL OBJECTS DELETE FILES");
+        }
+    }
+
+    @Test
+    public void testStreamAll() {
+        AtomicLong idSum = new AtomicLong();
+
+        long count;
+        try (Stream<Product> products = productDao.streamAll(500)) {
+            count = products.peek(product -> idSum.addAndGet(product.getId())).count();
+        }
+
+        assertEquals(PRODUCTS_COUNT, count);
+        assertEquals((long) PRODUCTS_COUNT * (PRODUCTS_COUNT + 1) / 2, idSum.get());
+    }
+
+    @Test
+    public void testForEach() {
+        AtomicLong count = new AtomicLong();
+
+        productDao.forEach(product -> count.incrementAndGet());
+
+        assertEquals(PRODUCTS_COUNT, count.get());
+    }
+}
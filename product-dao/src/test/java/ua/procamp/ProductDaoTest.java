@@ -1,10 +1,14 @@
 package ua.procamp;
 
+import ua.procamp.dao.Page;
 import ua.procamp.dao.ProductDao;
 import ua.procamp.dao.ProductDaoImpl;
 import ua.procamp.exception.DaoOperationException;
 import ua.procamp.model.Product;
+import ua.procamp.util.FileReader;
 import ua.procamp.util.JdbcUtil;
+import ua.procamp.util.PoolConfig;
+import ua.procamp.util.PooledDataSource;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.BeforeClass;
@@ -17,19 +21,26 @@ import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
 @RunWith(JUnit4.class)
 public class ProductDaoTest {
+    private static DataSource h2DataSource;
     private static ProductDao productDao;
 
     @BeforeClass
     public static void init() throws SQLException {
-        DataSource h2DataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        h2DataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
         createAccountTable(h2DataSource);
         productDao = new ProductDaoImpl(h2DataSource);
     }
@@ -37,17 +48,7 @@ public class ProductDaoTest {
     private static void createAccountTable(DataSource dataSource) throws SQLException {
         try (Connection connection = dataSource.getConnection()) {
             Statement createTableStatement = connection.createStatement();
-            createTableStatement.execute("CREATE TABLE IF NOT EXISTS products (\n" +
-                    "  id            SERIAL NOT NULL,\n" +
-                    "  name     VARCHAR(255) NOT NULL,\n" +
-                    "  producer     VARCHAR(255) NOT NULL,\n" +
-                    "  price       DECIMAL(19, 4),\n" +
-                    "  expiration_date      TIMESTAMP NOT NULL,\n" +
-                    "  creation_time TIMESTAMP NOT NULL DEFAULT now(),\n" +
-                    "\n" +
-                    "  CONSTRAINT products_pk PRIMARY KEY (id)\n" +
-                    ");\n" +
-                    "\n");
+            createTableStatement.execute(FileReader.readWholeFileFromResources("db/products.sql"));
         }
     }
 
@@ -87,6 +88,42 @@ public class ProductDaoTest {
         }
     }
 
+    @Test
+    public void testSaveAll() {
+        List<Product> newProducts = Stream.generate(this::generateTestProduct).limit(7).collect(toList());
+        ProductDao batchProductDao = new ProductDaoImpl(h2DataSource, 3);
+
+        int productsCountBeforeInsert = productDao.findAll().size();
+        batchProductDao.saveAll(newProducts);
+        List<Product> products = productDao.findAll();
+
+        assertTrue(newProducts.stream().map(Product::getId).allMatch(Objects::nonNull));
+        assertEquals(newProducts.size(), newProducts.stream().map(Product::getId).distinct().count());
+        assertEquals(productsCountBeforeInsert + newProducts.size(), products.size());
+        assertTrue(products.containsAll(newProducts));
+        newProducts.forEach(product -> assertEquals(product.getName(), productDao.findOne(product.getId()).getName()));
+    }
+
+    @Test
+    public void testSaveAllRollsBackFailedBatchOnly() {
+        List<Product> newProducts = Stream.generate(this::generateTestProduct).limit(4).collect(toList());
+        newProducts.get(3).setProducer(null);
+        ProductDao batchProductDao = new ProductDaoImpl(h2DataSource, 2);
+
+        int productsCountBeforeInsert = productDao.findAll().size();
+        try {
+            batchProductDao.saveAll(newProducts);
+            fail("Exception was't thrown");
+        } catch (Exception e) {
+            assertEquals(DaoOperationException.class, e.getClass());
+        }
+        List<Product> products = productDao.findAll();
+
+        assertEquals(productsCountBeforeInsert + 2, products.size());
+        assertTrue(products.containsAll(newProducts.subList(0, 2)));
+        assertNull(newProducts.get(2).getId());
+    }
+
     private Product createTestFantaProduct() {
         return Product.builder()
                 .name("Fanta")
@@ -117,6 +154,76 @@ public class ProductDaoTest {
 
     }
 
+    @Test
+    public void testFindPage() {
+        createTestProductList().forEach(productDao::save);
+        List<Long> allIds = productDao.findAll().stream().map(Product::getId).sorted().collect(toList());
+
+        List<Long> pagedIds = new ArrayList<>();
+        Page<Product> page = productDao.findPage(null, 2);
+        pagedIds.addAll(page.getContent().stream().map(Product::getId).collect(toList()));
+        while (page.hasNext()) {
+            assertEquals(2, page.getContent().size());
+            page = productDao.findPage(page.getNextCursor(), 2);
+            pagedIds.addAll(page.getContent().stream().map(Product::getId).collect(toList()));
+        }
+
+        assertEquals(allIds, pagedIds);
+    }
+
+    @Test
+    public void testStreamAll() {
+        createTestProductList().forEach(productDao::save);
+        List<Long> allIds = productDao.findAll().stream().map(Product::getId).sorted().collect(toList());
+
+        List<Long> streamedIds;
+        // a small fetch size makes the stream fetch rows several times
+        try (Stream<Product> products = productDao.streamAll(2)) {
+            streamedIds = products.map(Product::getId).collect(toList());
+        }
+
+        assertEquals(allIds, streamedIds);
+    }
+
+    @Test
+    public void testForEach() {
+        createTestProductList().forEach(productDao::save);
+        List<Product> allProducts = productDao.findAll();
+
+        List<Product> products = new ArrayList<>();
+        productDao.forEach(products::add);
+
+        assertEquals(allProducts.size(), products.size());
+        assertTrue(products.containsAll(allProducts));
+    }
+
+    @Test
+    public void testClosingStreamReleasesConnection() {
+        createTestProductList().forEach(productDao::save);
+        PoolConfig poolConfig = PoolConfig.builder()
+                .maxPoolSize(1)
+                .borrowTimeout(Duration.ofMillis(100))
+                .evictionInterval(Duration.ZERO)
+                .build();
+        try (PooledDataSource pooledDataSource = JdbcUtil.createPooledDataSource(h2DataSource, poolConfig)) {
+            ProductDao pooledProductDao = new ProductDaoImpl(pooledDataSource);
+
+            // the stream is closed before it's fully consumed
+            try (Stream<Product> products = pooledProductDao.streamAll(1)) {
+                Iterator<Product> iterator = products.iterator();
+                iterator.next();
+                assertEquals(1, pooledDataSource.getMetrics().getActiveConnections());
+            }
+
+            assertEquals(0, pooledDataSource.getMetrics().getActiveConnections());
+            assertEquals(0, pooledDataSource.getMetrics().getConnectionsDestroyed());
+            // the only pooled connection is back in auto-commit mode and can be used to write
+            Product product = createTestFantaProduct();
+            pooledProductDao.save(product);
+            assertEquals(product, pooledProductDao.findOne(product.getId()));
+        }
+    }
+
     private List<Product> createTestProductList() {
         return List.of(
                 Product.builder()
@@ -1,9 +1,16 @@
 package ua.procamp;
 
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
 import ua.procamp.exception.QueryHelperException;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -22,13 +29,64 @@ public class QueryHelper {
      * throws a {@link QueryHelperException} with the following message: "Error performing query. Transaction is rolled back"
      * <p>
      * The purpose of this method is to perform read operations using {@link EntityManager}, so it uses read only mode
-     * by default.
+     * by default. The session is never flushed, loaded entities are read-only, so Hibernate doesn't keep their
+     * snapshots for dirty checking, and JDBC connection is marked as read-only for the time of the transaction.
      *
      * @param entityManagerConsumer query logic encapsulated as function that receives entity manager and returns result
      * @param <T>                   generic type that allows to specify single entity class of some collection
      * @return query result specified by type T
      */
     public <T> T readWithinTx(Function<EntityManager, T> entityManagerConsumer) {
-        throw new UnsupportedOperationException("I'm waiting for you to do your job and make me work ;)"); // todo:
+        Session session = openReadOnlySession();
+        try {
+            session.getTransaction().begin();
+            T result = entityManagerConsumer.apply(session);
+            session.getTransaction().commit();
+            return result;
+        } catch (Exception e) {
+            session.getTransaction().rollback();
+            throw new QueryHelperException("Error performing query. Transaction is rolled back", e);
+        } finally {
+            closeReadOnlySession(session);
+        }
+    }
+
+    /**
+     * Performs a query created by received function the same way as {@link QueryHelper#readWithinTx(Function)}, and
+     * applies query timeout and JDBC fetch size hints to it. It is meant for large report queries, which should
+     * neither run forever nor load the whole result set into the driver at once.
+     *
+     * @param queryFunction function that receives entity manager and creates a query
+     * @param timeoutMillis query timeout in milliseconds
+     * @param fetchSize     number of rows fetched from the database per round trip
+     * @param <T>           query result type
+     * @return query result list
+     */
+    public <T> List<T> readWithinTx(Function<EntityManager, TypedQuery<T>> queryFunction, int timeoutMillis,
+                                    int fetchSize) {
+        return readWithinTx(entityManager -> queryFunction.apply(entityManager)
+                .setHint(QueryHints.SPEC_HINT_TIMEOUT, timeoutMillis)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultList());
+    }
+
+    private Session openReadOnlySession() {
+        // the connection is held until the session is closed, so its read-only flag can be reset before it's released
+        Session session = entityManagerFactory.unwrap(SessionFactory.class).withOptions()
+                .connectionHandlingMode(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD)
+                .openSession();
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        session.setDefaultReadOnly(true);
+        // read-only flag cannot be changed within a transaction, so it's set before the transaction begins
+        session.doWork(connection -> connection.setReadOnly(true));
+        return session;
+    }
+
+    private void closeReadOnlySession(Session session) {
+        try {
+            session.doWork(connection -> connection.setReadOnly(false));
+        } finally {
+            session.close();
+        }
     }
 }
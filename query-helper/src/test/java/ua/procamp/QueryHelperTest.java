@@ -4,12 +4,15 @@ import ua.procamp.exception.QueryHelperException;
 import ua.procamp.model.Account;
 import ua.procamp.util.EntityManagerUtil;
 import ua.procamp.util.TestDataGenerator;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -55,6 +58,30 @@ public class QueryHelperTest {
         assertThat(foundAccount.getFirstName(), equalTo(account.getFirstName()));
     }
 
+    @Test
+    public void testQueryHelperUsesReadOnlySession() {
+        Account account = saveRandomAccount();
+
+        boolean readOnly = queryHelper.readWithinTx(entityManager -> {
+            Session session = entityManager.unwrap(Session.class);
+            Account managedAccount = session.find(Account.class, account.getId());
+            return session.isReadOnly(managedAccount) && session.getHibernateFlushMode() == FlushMode.MANUAL;
+        });
+
+        assertThat(readOnly, is(true));
+    }
+
+    @Test
+    public void testQueryHelperPerformsQueryWithHints() {
+        Account account = saveRandomAccount();
+
+        List<Account> foundAccounts = queryHelper.readWithinTx(entityManager -> entityManager
+                .createQuery("select a from Account a where a.id = :id", Account.class)
+                .setParameter("id", account.getId()), 1000, 50);
+
+        assertThat(foundAccounts, contains(account));
+    }
+
     private Account saveRandomAccount() {
         Account account = TestDataGenerator.generateAccount();
         emUtil.performWithinTx(entityManager -> entityManager.persist(account));